@@ -1,22 +1,36 @@
 package com.tvz.mediaapp.backend.config;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.client.config.SdkAdvancedAsyncClientOption;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
 import software.amazon.awssdk.http.urlconnection.UrlConnectionHttpClient;
 import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.S3AsyncClientBuilder;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.presigner.S3Presigner;
 
+import java.util.concurrent.Executors;
+
 @Configuration
+@ConditionalOnProperty(name = "storage.backend", havingValue = "s3", matchIfMissing = true)
 public class AwsConfig {
 
     @Value("${aws.region}")
     private String awsRegion;
 
+    @Value("${aws.s3.max-in-flight-requests}")
+    private int maxInFlightRequests;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
     @Value("${cloud.aws.credentials.access-key}")
     private String accessKey;
 
@@ -38,6 +52,20 @@ public class AwsConfig {
                 .build();
     }
 
+    @Bean
+    public S3AsyncClient s3AsyncClient(AwsCredentialsProvider credentialsProvider) {
+        S3AsyncClientBuilder builder = S3AsyncClient.builder()
+                .region(Region.of(awsRegion))
+                .credentialsProvider(credentialsProvider)
+                .httpClientBuilder(NettyNioAsyncHttpClient.builder().maxConcurrency(maxInFlightRequests));
+        if (virtualThreads) {
+            // future callbacks otherwise run on the SDK's small platform thread pool
+            builder.asyncConfiguration(config -> config.advancedOption(SdkAdvancedAsyncClientOption.FUTURE_COMPLETION_EXECUTOR,
+                    Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("s3-async-completion-", 1).factory())));
+        }
+        return builder.build();
+    }
+
     @Bean
     public S3Presigner s3Presigner(AwsCredentialsProvider credentialsProvider) {
         return S3Presigner.builder()
@@ -0,0 +1,26 @@
+package com.tvz.mediaapp.backend.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tvz.mediaapp.backend.metrics.EndpointRepositoryTagsProvider;
+import com.tvz.mediaapp.backend.metrics.TimedJacksonHttpMessageConverter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.actuate.metrics.data.RepositoryTagsProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public RepositoryTagsProvider repositoryTagsProvider() {
+        return new EndpointRepositoryTagsProvider();
+    }
+
+    // replaces Spring Boot's default JSON converter
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper,
+                                                                                   MeterRegistry meterRegistry) {
+        return new TimedJacksonHttpMessageConverter(objectMapper, meterRegistry);
+    }
+}
@@ -0,0 +1,63 @@
+package com.tvz.mediaapp.backend.controller;
+
+import com.tvz.mediaapp.backend.storage.LocalObjectStore;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+@RestController
+@RequestMapping("/files")
+@ConditionalOnProperty(name = "storage.backend", havingValue = "local")
+@RequiredArgsConstructor
+public class LocalStorageController {
+
+    private static final String FILES_PATH = "/files/";
+
+    private final LocalObjectStore localObjectStore;
+
+    @GetMapping("/**")
+    public ResponseEntity<Resource> download(HttpServletRequest request, HttpServletResponse response,
+                                             @RequestParam long expires,
+                                             @RequestParam String signature) throws IOException {
+        String key = objectKey(request);
+        localObjectStore.verify("GET", key, null, null, expires, signature);
+        Path file = localObjectStore.resolveExisting(key);
+        return MediaStreamResponses.stream(request, response, new FileSystemResource(file), key);
+    }
+
+    @PutMapping("/**")
+    public ResponseEntity<Void> upload(HttpServletRequest request,
+                                       @RequestParam long expires,
+                                       @RequestParam String signature,
+                                       @RequestParam(required = false) String uploadId,
+                                       @RequestParam(required = false) Integer partNumber) throws IOException {
+        String key = objectKey(request);
+        localObjectStore.verify("PUT", key, uploadId, partNumber, expires, signature);
+        String etag = uploadId != null
+                ? localObjectStore.writePart(key, uploadId, partNumber != null ? partNumber : 0, request.getInputStream())
+                : localObjectStore.write(key, request.getInputStream());
+        return ResponseEntity.ok().eTag(etag).build();
+    }
+
+    private static String objectKey(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (!path.startsWith(FILES_PATH)) {
+            throw new IllegalArgumentException("Invalid object path: " + path);
+        }
+        return URLDecoder.decode(path.substring(FILES_PATH.length()).replace("+", "%2B"), StandardCharsets.UTF_8);
+    }
+}
@@ -1,19 +1,40 @@
 package com.tvz.mediaapp.backend.controller;
 
+import com.tvz.mediaapp.backend.model.User;
+import com.tvz.mediaapp.backend.service.MediaUploadService;
+import com.tvz.mediaapp.backend.service.MediaVariantService;
+import com.tvz.mediaapp.backend.service.PostService;
 import com.tvz.mediaapp.backend.service.StorageService;
+import com.tvz.mediaapp.dto.BulkDownloadRequestDto;
 import com.tvz.mediaapp.dto.DownloadRequestDto;
+import com.tvz.mediaapp.dto.MultipartUploadDto;
+import com.tvz.mediaapp.dto.MultipartUploadRequestDto;
 import com.tvz.mediaapp.dto.UploadRequestDto;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.IOException;
+import java.net.URI;
 import java.net.URL;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
 
 @RestController
 @RequestMapping("/media")
@@ -22,12 +43,16 @@ import java.util.Map;
 public class MediaController {
 
     private final StorageService storageService;
+    private final PostService postService;
+    private final MediaUploadService mediaUploadService;
+    private final MediaVariantService mediaVariantService;
 
     @PostMapping("/generate-upload-url")
-    public ResponseEntity<Map<String, String>> generateUploadUrl(@RequestBody UploadRequestDto request) {
+    public ResponseEntity<Map<String, String>> generateUploadUrl(@RequestBody UploadRequestDto request, @AuthenticationPrincipal User user) {
         String requestedFilename = request.getFilename();
+        UUID postUuid = reserveDirectUpload(user, request.getPostUuid(), requestedFilename);
 
-        URL uploadUrl = storageService.generatePreSignedUploadUrl(requestedFilename);
+        URL uploadUrl = storageService.generatePreSignedUploadUrl(postUuid, requestedFilename);
 
         Map<String, String> response = new HashMap<>();
         response.put("uploadUrl", uploadUrl.toString());
@@ -36,9 +61,81 @@ public class MediaController {
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping("/multipart/create")
+    public ResponseEntity<MultipartUploadDto> createMultipartUpload(@RequestBody MultipartUploadRequestDto request, @AuthenticationPrincipal User user) {
+        UUID postUuid = reserveDirectUpload(user, request.getPostUuid(), request.getFilename());
+        return ResponseEntity.ok(storageService.createMultipartUpload(postUuid, request.getFilename(), request.getContentType(), request.getFileSize()));
+    }
+
+    @PostMapping("/multipart/complete")
+    public ResponseEntity<Void> completeMultipartUpload(@RequestBody MultipartUploadDto request, @AuthenticationPrincipal User user) {
+        UUID postUuid = requireDirectUpload(user, request.getPostUuid(), request.getFilename());
+        storageService.completeMultipartUpload(postUuid, request.getFilename(), request.getUploadId(), request.getParts());
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/multipart/abort")
+    public ResponseEntity<Void> abortMultipartUpload(@RequestBody MultipartUploadDto request, @AuthenticationPrincipal User user) {
+        UUID postUuid = requireDirectUpload(user, request.getPostUuid(), request.getFilename());
+        storageService.abortMultipartUpload(postUuid, request.getFilename(), request.getUploadId());
+        return ResponseEntity.noContent().build();
+    }
+
     @PostMapping("/generate-download-urls")
     public ResponseEntity<Map<String, String>> generateDownloadUrls(@RequestBody DownloadRequestDto request) {
         Map<String, String> urls = storageService.generatePreSignedDownloadUrls(request.getPostUuid(), request.getFilenames());
         return ResponseEntity.ok(urls);
     }
+
+    @PostMapping("/generate-download-urls/bulk")
+    public ResponseEntity<Map<String, Map<String, String>>> generateBulkDownloadUrls(@RequestBody BulkDownloadRequestDto request,
+                                                                                     @AuthenticationPrincipal User user) {
+        Map<UUID, List<String>> filesByPost = new LinkedHashMap<>();
+        if (request.getFiles() != null) {
+            request.getFiles().forEach((postUuid, filenames) ->
+                    filesByPost.put(UUID.fromString(postUuid), filenames != null ? filenames : List.of()));
+        }
+
+        storageService.checkBulkDownloadSize(filesByPost);
+        postService.requireOwnedPosts(user, filesByPost.keySet());
+        Map<UUID, Map<String, String>> objectsByPost = mediaVariantService.resolveObjects(filesByPost, request.isThumbnailsOnly(), request.getSize());
+        return ResponseEntity.ok(storageService.generatePreSignedDownloadUrls(objectsByPost));
+    }
+
+    @GetMapping("/stream/{postUuid}/{filename}")
+    public ResponseEntity<Resource> streamMedia(@PathVariable String postUuid, @PathVariable String filename,
+                                                @AuthenticationPrincipal User user,
+                                                HttpServletRequest request, HttpServletResponse response) throws IOException {
+        UUID uuid = parseUuid(postUuid);
+        postService.requireOwnedPosts(user, Set.of(uuid));
+
+        Optional<Resource> resource = storageService.openMediaObject(uuid, filename);
+        if (resource.isEmpty()) {
+            // S3 already answers ranged and conditional GETs, so the client reads from it directly
+            return ResponseEntity.status(HttpStatus.FOUND)
+                    .location(URI.create(storageService.generatePreSignedDownloadUrl(uuid, filename)))
+                    .build();
+        }
+        return MediaStreamResponses.stream(request, response, resource.get(), filename);
+    }
+
+    private UUID reserveDirectUpload(User user, String postUuid, String filename) {
+        UUID uuid = parseUuid(postUuid);
+        if (uuid != null) {
+            mediaUploadService.reserve(user, uuid, filename);
+        }
+        return uuid;
+    }
+
+    private UUID requireDirectUpload(User user, String postUuid, String filename) {
+        UUID uuid = parseUuid(postUuid);
+        if (uuid != null) {
+            mediaUploadService.requireReservation(user, uuid, filename);
+        }
+        return uuid;
+    }
+
+    private static UUID parseUuid(String uuid) {
+        return uuid != null ? UUID.fromString(uuid) : null;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,113 @@
+package com.tvz.mediaapp.backend.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Serves stored media with conditional and ranged GET support. Object keys are never reused for
+ * different content, so responses are cacheable as immutable.
+ */
+final class MediaStreamResponses {
+
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(Duration.ofDays(365)).cachePrivate().immutable();
+
+    // Tomcat request attributes that hand the body over to the connector's sendfile support
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+    // same cut-off as Tomcat's DefaultServlet, smaller bodies are cheaper to copy through the buffer
+    private static final long SENDFILE_MIN_BYTES = 48 * 1024;
+
+    private MediaStreamResponses() {
+    }
+
+    /** Returns {@code null} when a 304 has already been written. */
+    static ResponseEntity<Resource> stream(HttpServletRequest request, HttpServletResponse response,
+                                           Resource resource, String filename) throws IOException {
+        long length = resource.contentLength();
+        long lastModified = resource.lastModified();
+        String etag = "\"" + Long.toHexString(lastModified) + "-" + Long.toHexString(length) + "\"";
+
+        if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, IMMUTABLE.getHeaderValue());
+            return null;
+        }
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag(etag);
+        headers.setLastModified(lastModified);
+        headers.setCacheControl(IMMUTABLE);
+        headers.setContentType(MediaTypeFactory.getMediaType(filename).orElse(MediaType.APPLICATION_OCTET_STREAM));
+        headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        long start = 0;
+        long end = length;
+        HttpStatus status = HttpStatus.OK;
+        if (rangeHeader != null) {
+            List<HttpRange> ranges;
+            try {
+                ranges = HttpRange.parseRanges(rangeHeader);
+            } catch (IllegalArgumentException e) {
+                ranges = List.of();
+            }
+            if (ranges.size() != 1) {
+                // multipart/byteranges and malformed headers are left to Spring's ResourceRegion handling
+                return ResponseEntity.ok().headers(headers).body(resource);
+            }
+            HttpRange range = ranges.getFirst();
+            if (length == 0 || !satisfiable(range, length)) {
+                return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                        .header(HttpHeaders.CONTENT_RANGE, "bytes */" + length)
+                        .build();
+            }
+            start = range.getRangeStart(length);
+            end = range.getRangeEnd(length) + 1;
+            status = HttpStatus.PARTIAL_CONTENT;
+        }
+
+        if (canSendfile(request, resource, end - start)) {
+            if (status == HttpStatus.PARTIAL_CONTENT) {
+                headers.set(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + (end - 1) + "/" + length);
+            }
+            request.setAttribute(SENDFILE_FILENAME, resource.getFile().getAbsolutePath());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end);
+            headers.setContentLength(end - start);
+            return ResponseEntity.status(status).headers(headers).build();
+        }
+
+        // Spring turns a Resource body plus the Range header into a ResourceRegion and streams it
+        return ResponseEntity.ok().headers(headers).body(resource);
+    }
+
+    private static boolean satisfiable(HttpRange range, long length) {
+        try {
+            return range.getRangeStart(length) < length;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static boolean canSendfile(HttpServletRequest request, Resource resource, long bytes) {
+        return Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))
+                && HttpMethod.GET.matches(request.getMethod())
+                && resource.isFile()
+                && bytes >= SENDFILE_MIN_BYTES;
+    }
+}
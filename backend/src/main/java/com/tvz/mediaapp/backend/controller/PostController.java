@@ -2,13 +2,19 @@ package com.tvz.mediaapp.backend.controller;
 
 import com.tvz.mediaapp.backend.model.User;
 import com.tvz.mediaapp.backend.service.PostService;
+import com.tvz.mediaapp.backend.service.PostStreamService;
+import com.tvz.mediaapp.dto.PostChangesDto;
 import com.tvz.mediaapp.dto.PostDto;
+import com.tvz.mediaapp.dto.PostPageDto;
 import com.tvz.mediaapp.dto.PostRequestDto;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 import java.util.UUID;
@@ -19,10 +25,33 @@ import java.util.UUID;
 public class PostController {
 
     private final PostService postService;
+    private final PostStreamService postStreamService;
 
     @GetMapping
-    public ResponseEntity<List<PostDto>> getAllPosts(@AuthenticationPrincipal User user) {
-        return ResponseEntity.ok(postService.getAllPostsForUser(user));
+    public ResponseEntity<List<PostDto>> getAllPosts(@AuthenticationPrincipal User user, WebRequest request) {
+        String eTag = postService.getPostsETag(user);
+        if (request.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+        return ResponseEntity.ok().eTag(eTag).body(postService.getAllPostsForUser(user));
+    }
+
+    @GetMapping(params = "limit")
+    public ResponseEntity<PostPageDto> getPostPage(@RequestParam(required = false) String after,
+                                                   @RequestParam int limit,
+                                                   @RequestParam(required = false) List<String> platforms,
+                                                   @AuthenticationPrincipal User user) {
+        return ResponseEntity.ok(postService.getPostPageForUser(user, after, limit, platforms));
+    }
+
+    @GetMapping("/changes")
+    public ResponseEntity<PostChangesDto> getChanges(@RequestParam long since, @AuthenticationPrincipal User user) {
+        return ResponseEntity.ok(postService.getChangesForUser(user, since));
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(@AuthenticationPrincipal User user) {
+        return postStreamService.subscribe(user);
     }
 
     @PostMapping
@@ -1,6 +1,7 @@
 package com.tvz.mediaapp.backend.exception;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.BadCredentialsException;
@@ -17,8 +18,8 @@ public class GlobalExceptionHandler {
 
     private static final String ERROR_KEY = "error";
 
-    @ExceptionHandler(UserAlreadyExistsException.class)
-    public ResponseEntity<Map<String, String>> handleUserAlreadyExistsException(UserAlreadyExistsException ex) {
+    @ExceptionHandler({UserAlreadyExistsException.class, PostAlreadyExistsException.class})
+    public ResponseEntity<Map<String, String>> handleConflictException(RuntimeException ex) {
         log.warn("Conflict error: {}", ex.getMessage());
         return new ResponseEntity<>(Map.of(ERROR_KEY, ex.getMessage()), HttpStatus.CONFLICT);
     }
@@ -29,6 +30,20 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(Map.of(ERROR_KEY, "Invalid credentials"), HttpStatus.UNAUTHORIZED);
     }
 
+    @ExceptionHandler(InvalidSignatureException.class)
+    public ResponseEntity<Map<String, String>> handleInvalidSignatureException(InvalidSignatureException ex) {
+        log.warn("Rejected signed URL: {}", ex.getMessage());
+        return new ResponseEntity<>(Map.of(ERROR_KEY, ex.getMessage()), HttpStatus.FORBIDDEN);
+    }
+
+    @ExceptionHandler(ServiceOverloadedException.class)
+    public ResponseEntity<Map<String, String>> handleServiceOverloadedException(ServiceOverloadedException ex) {
+        log.warn("Shedding load: {}", ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(Map.of(ERROR_KEY, ex.getMessage()));
+    }
+
     @ExceptionHandler(NoSuchElementException.class)
     public ResponseEntity<Map<String, String>> handleNoSuchElementException(NoSuchElementException ex) {
         log.warn("Resource not found: {}", ex.getMessage());
@@ -0,0 +1,11 @@
+package com.tvz.mediaapp.backend.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class PostAlreadyExistsException extends RuntimeException {
+    public PostAlreadyExistsException(String message) {
+        super(message);
+    }
+}
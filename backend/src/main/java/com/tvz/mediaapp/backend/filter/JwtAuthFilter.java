@@ -1,6 +1,14 @@
 package com.tvz.mediaapp.backend.filter;
 
+import com.tvz.mediaapp.backend.metrics.RequestTags;
+import com.tvz.mediaapp.backend.model.User;
 import com.tvz.mediaapp.backend.service.JwtService;
+import com.tvz.mediaapp.backend.service.UserPrincipalService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -9,20 +17,20 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
 @Component
 @RequiredArgsConstructor
 public class JwtAuthFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
-    private final UserDetailsService userDetailsService;
+    private final UserPrincipalService userPrincipalService;
+    private final MeterRegistry meterRegistry;
 
     @Override
     protected void doFilterInternal(
@@ -40,22 +48,50 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         }
 
         jwt = authHeader.substring(7);
+        long verifyStart = System.nanoTime();
+        long verifyNanos = -1;
+        long principalNanos = -1;
+        Throwable principalError = null;
+        String verifyOutcome = "valid";
         try {
-            username = jwtService.extractUsername(jwt);
+            Claims claims = jwtService.validateToken(jwt);
+            verifyNanos = System.nanoTime() - verifyStart;
+            username = claims.getSubject();
 
             if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
-                if (jwtService.isTokenValid(jwt, userDetails)) {
-                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                            userDetails, null, userDetails.getAuthorities());
-                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
+                long principalStart = System.nanoTime();
+                User principal;
+                try {
+                    principal = userPrincipalService.resolve(claims);
+                } finally {
+                    principalNanos = System.nanoTime() - principalStart;
                 }
+                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                        principal, null, principal.getAuthorities());
+                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                SecurityContextHolder.getContext().setAuthentication(authToken);
             }
         } catch (Exception e) {
+            if (verifyNanos < 0) {
+                verifyNanos = System.nanoTime() - verifyStart;
+                verifyOutcome = e instanceof ExpiredJwtException ? "expired" : "invalid";
+            } else {
+                principalError = e;
+            }
             logger.debug("Cannot set user authentication: {}", e);
         }
 
-        filterChain.doFilter(request, response);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            // recorded after dispatch, once the matched endpoint is known
+            Tag endpoint = RequestTags.endpoint(request);
+            meterRegistry.timer("auth.jwt.verify", Tags.of(endpoint, Tag.of("outcome", verifyOutcome)))
+                    .record(verifyNanos, TimeUnit.NANOSECONDS);
+            if (principalNanos >= 0) {
+                meterRegistry.timer("auth.principal.resolve", Tags.of(endpoint, RequestTags.outcome(principalError)))
+                        .record(principalNanos, TimeUnit.NANOSECONDS);
+            }
+        }
     }
 }
@@ -0,0 +1,18 @@
+package com.tvz.mediaapp.backend.metrics;
+
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.boot.actuate.metrics.data.DefaultRepositoryTagsProvider;
+import org.springframework.data.repository.core.support.RepositoryMethodInvocationListener.RepositoryMethodInvocation;
+
+/**
+ * Adds the calling endpoint to Spring Data's {@code spring.data.repository.invocations} timers. The listener
+ * runs on the invoking thread, so the request is still bound.
+ */
+public class EndpointRepositoryTagsProvider extends DefaultRepositoryTagsProvider {
+
+    @Override
+    public Iterable<Tag> repositoryTags(RepositoryMethodInvocation invocation) {
+        return Tags.of(super.repositoryTags(invocation)).and(RequestTags.endpoint());
+    }
+}
@@ -0,0 +1,52 @@
+package com.tvz.mediaapp.backend.metrics;
+
+import io.micrometer.core.instrument.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Tags shared by the stage timers so they line up with {@code http.server.requests}: {@code uri} is the
+ * matched route, {@code none} outside a request (schedulers, async completions).
+ */
+public final class RequestTags {
+
+    private static final Tag NO_REQUEST = Tag.of("uri", "none");
+    private static final Tag UNKNOWN_ENDPOINT = Tag.of("uri", "UNKNOWN");
+    private static final Tag SUCCESS = Tag.of("outcome", "success");
+    private static final Tag NOT_FOUND = Tag.of("outcome", "not_found");
+    private static final Tag ERROR = Tag.of("outcome", "error");
+
+    private RequestTags() {
+    }
+
+    public static Tag endpoint() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return NO_REQUEST;
+        }
+        return endpoint(attributes.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST));
+    }
+
+    public static Tag endpoint(HttpServletRequest request) {
+        return endpoint(request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE));
+    }
+
+    public static Tag outcome(Throwable error) {
+        if (error == null) {
+            return SUCCESS;
+        }
+        if (error instanceof CompletionException && error.getCause() != null) {
+            error = error.getCause();
+        }
+        return error instanceof NoSuchElementException ? NOT_FOUND : ERROR;
+    }
+
+    private static Tag endpoint(Object pattern) {
+        return pattern != null ? Tag.of("uri", pattern.toString()) : UNKNOWN_ENDPOINT;
+    }
+}
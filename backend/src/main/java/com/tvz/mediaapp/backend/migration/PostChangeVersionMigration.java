@@ -0,0 +1,56 @@
+package com.tvz.mediaapp.backend.migration;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Posts written before delta sync got change_version 0 from the column default, which {@code since=0} never
+ * returns. Numbers each user's unversioned posts after their current posts_version and advances posts_version
+ * past them, so clients pick them up like any other change.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PostChangeVersionMigration implements ApplicationRunner {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional
+    public void run(ApplicationArguments args) {
+        List<Map<String, Object>> users = jdbcTemplate.queryForList(
+                "SELECT user_id, COUNT(*) AS posts FROM posts WHERE change_version = 0 GROUP BY user_id");
+        int migrated = 0;
+        for (Map<String, Object> row : users) {
+            long userId = ((Number) row.get("user_id")).longValue();
+            long count = ((Number) row.get("posts")).longValue();
+
+            // takes the user's row lock, so writes to this user's posts wait until the backfill commits
+            jdbcTemplate.update("UPDATE _user SET posts_version = posts_version + ? WHERE id = ?", count, userId);
+            long lastVersion = jdbcTemplate.queryForObject("SELECT posts_version FROM _user WHERE id = ?", Long.class, userId);
+
+            List<UUID> uuids = jdbcTemplate.queryForList(
+                    "SELECT uuid FROM posts WHERE user_id = ? AND change_version = 0 ORDER BY created_at, uuid", UUID.class, userId);
+            long version = lastVersion - uuids.size();
+            List<Object[]> batch = new ArrayList<>(uuids.size());
+            for (UUID uuid : uuids) {
+                batch.add(new Object[]{++version, uuid});
+            }
+            jdbcTemplate.batchUpdate("UPDATE posts SET change_version = ? WHERE uuid = ?", batch);
+            migrated += uuids.size();
+        }
+        if (migrated > 0) {
+            log.info("Assigned change versions to {} posts of {} users", migrated, users.size());
+        }
+    }
+}
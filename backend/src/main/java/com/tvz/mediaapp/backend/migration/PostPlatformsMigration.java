@@ -0,0 +1,76 @@
+package com.tvz.mediaapp.backend.migration;
+
+import com.tvz.mediaapp.backend.model.Platform;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Copies platforms from the legacy post_platforms table into posts.platform_mask. Runs while the context starts,
+ * after Hibernate has updated the schema and before the web server accepts requests, so no request sees a post
+ * without its platforms. The legacy table is left in place so a rolled back deploy still finds it; a marker row
+ * in schema_migrations keeps later startups from copying it over newer edits.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+@RequiredArgsConstructor
+@Slf4j
+public class PostPlatformsMigration {
+
+    static final String NAME = "post_platforms_to_platform_mask";
+    private static final String LEGACY_TABLE = "post_platforms";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+
+    @PostConstruct
+    public void init() throws MetaDataAccessException {
+        if (!legacyTableExists()) {
+            return;
+        }
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS schema_migrations (name VARCHAR(255) PRIMARY KEY, applied_at TIMESTAMP NOT NULL)");
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            if (jdbcTemplate.queryForObject("SELECT COUNT(*) FROM schema_migrations WHERE name = ?", Integer.class, NAME) > 0) {
+                return;
+            }
+
+            String bitForPlatform = Arrays.stream(Platform.values())
+                    .map(platform -> "WHEN '" + platform.name() + "' THEN " + platform.getBit())
+                    .collect(Collectors.joining(" ", "CASE c.platform ", " ELSE 0 END"));
+
+            int migrated = jdbcTemplate.update("""
+                    UPDATE posts SET platform_mask = (
+                        SELECT BIT_OR(%s) FROM post_platforms c WHERE c.post_uuid = posts.uuid
+                    )
+                    WHERE EXISTS (SELECT 1 FROM post_platforms c WHERE c.post_uuid = posts.uuid)
+                    """.formatted(bitForPlatform));
+            jdbcTemplate.update("INSERT INTO schema_migrations (name, applied_at) VALUES (?, CURRENT_TIMESTAMP)", NAME);
+            log.info("Migrated platforms of {} posts from {} to posts.platform_mask", migrated, LEGACY_TABLE);
+        });
+    }
+
+    private boolean legacyTableExists() throws MetaDataAccessException {
+        return JdbcUtils.extractDatabaseMetaData(jdbcTemplate.getDataSource(), metaData -> {
+            for (String name : new String[]{LEGACY_TABLE, LEGACY_TABLE.toUpperCase()}) {
+                try (ResultSet tables = metaData.getTables(null, null, name, new String[]{"TABLE"})) {
+                    if (tables.next()) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        });
+    }
+}
@@ -0,0 +1,65 @@
+package com.tvz.mediaapp.backend.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "media_variants", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_media_variants_file_kind", columnNames = {"post_uuid", "filename", "kind"})
+})
+public class MediaVariant {
+
+    @Getter
+    @RequiredArgsConstructor
+    public enum Kind {
+        THUMBNAIL("thumb", 150),
+        GRID("grid", 480),
+        PREVIEW("preview", 1280);
+
+        private final String suffix;
+        private final int maxSize;
+
+        public String filenameFor(String originalFilename) {
+            int lastDotIndex = originalFilename.lastIndexOf('.');
+            String nameWithoutExt = lastDotIndex > 0 ? originalFilename.substring(0, lastDotIndex) : originalFilename;
+            return nameWithoutExt + "_" + suffix + ".jpg";
+        }
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "post_uuid", nullable = false)
+    private UUID postUuid;
+
+    @Column(nullable = false)
+    private String filename;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Kind kind;
+
+    private int width;
+
+    private int height;
+
+    private long sizeBytes;
+
+    @CreationTimestamp
+    @Column(updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,51 @@
+package com.tvz.mediaapp.backend.model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+public enum Platform {
+    FACEBOOK(1),
+    TIKTOK(1 << 1),
+    INSTAGRAM(1 << 2),
+    YOUTUBE(1 << 3),
+    X(1 << 4);
+
+    private final int bit;
+
+    Platform(int bit) {
+        this.bit = bit;
+    }
+
+    public int getBit() {
+        return bit;
+    }
+
+    public static List<String> normalize(Collection<String> platforms) {
+        return fromMask(toMask(platforms));
+    }
+
+    public static int toMask(Collection<String> platforms) {
+        int mask = 0;
+        if (platforms != null) {
+            for (String platform : platforms) {
+                try {
+                    mask |= valueOf(platform).bit;
+                } catch (IllegalArgumentException | NullPointerException e) {
+                    throw new IllegalArgumentException("Unknown platform: " + platform);
+                }
+            }
+        }
+        return mask;
+    }
+
+    public static List<String> fromMask(int mask) {
+        List<String> platforms = new ArrayList<>();
+        for (Platform platform : values()) {
+            if ((mask & platform.bit) != 0) {
+                platforms.add(platform.name());
+            }
+        }
+        return platforms;
+    }
+}
@@ -0,0 +1,20 @@
+package com.tvz.mediaapp.backend.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.util.List;
+
+@Converter
+public class PlatformMaskConverter implements AttributeConverter<List<String>, Integer> {
+
+    @Override
+    public Integer convertToDatabaseColumn(List<String> platforms) {
+        return Platform.toMask(platforms);
+    }
+
+    @Override
+    public List<String> convertToEntityAttribute(Integer mask) {
+        return Platform.fromMask(mask != null ? mask : 0);
+    }
+}
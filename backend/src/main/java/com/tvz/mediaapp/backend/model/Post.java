@@ -6,6 +6,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
 
 import java.time.LocalDate;
@@ -18,7 +19,10 @@ import java.util.UUID;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "posts")
+@Table(name = "posts", indexes = {
+        @Index(name = "idx_posts_user_publish_date_uuid", columnList = "user_id, publish_date DESC, uuid DESC"),
+        @Index(name = "idx_posts_user_change_version", columnList = "user_id, change_version")
+})
 public class Post {
 
     @Id
@@ -36,16 +40,17 @@ public class Post {
     @Column(nullable = false)
     private String status;
 
-    @ElementCollection(fetch = FetchType.EAGER)
-    @CollectionTable(name = "post_platforms", joinColumns = @JoinColumn(name = "post_uuid"))
-    @Column(name = "platform")
+    @Convert(converter = PlatformMaskConverter.class)
+    @ColumnDefault("0")
+    @Column(name = "platform_mask", nullable = false)
     private List<String> platforms;
 
     @Column(nullable = false)
     private String mediaType;
 
-    @ElementCollection(fetch = FetchType.EAGER)
-    @CollectionTable(name = "post_media_uris", joinColumns = @JoinColumn(name = "post_uuid"))
+    @ElementCollection
+    @CollectionTable(name = "post_media_uris", joinColumns = @JoinColumn(name = "post_uuid"),
+            indexes = @Index(name = "idx_post_media_uris_post_uuid", columnList = "post_uuid"))
     @Column(name = "media_uri")
     private List<String> mediaUris;
 
@@ -55,6 +60,10 @@ public class Post {
 
     private LocalDateTime updatedAt;
 
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long changeVersion;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
@@ -83,7 +92,7 @@ public class Post {
                 .content(dto.getContent())
                 .publishDate(LocalDate.parse(dto.getPublishDate()))
                 .status(dto.getStatus())
-                .platforms(dto.getPlatforms())
+                .platforms(Platform.normalize(dto.getPlatforms()))
                 .mediaType(dto.getMediaType())
                 .mediaUris(dto.getMediaUris())
                 .user(user)
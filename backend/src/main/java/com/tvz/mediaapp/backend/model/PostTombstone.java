@@ -0,0 +1,33 @@
+package com.tvz.mediaapp.backend.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "post_tombstones", indexes = {
+        @Index(name = "idx_post_tombstones_user_change_version", columnList = "user_id, change_version")
+})
+public class PostTombstone {
+
+    @Id
+    private UUID uuid;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private long changeVersion;
+
+    @Column(nullable = false)
+    private LocalDateTime deletedAt;
+}
@@ -0,0 +1,25 @@
+package com.tvz.mediaapp.backend.repository;
+
+import com.tvz.mediaapp.backend.model.MediaUpload;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface MediaUploadRepository extends JpaRepository<MediaUpload, Long> {
+
+    List<MediaUpload> findAllByCreatedAtBeforeAndIdGreaterThanOrderByIdAsc(LocalDateTime createdAt, Long id, Limit limit);
+
+    boolean existsByUserIdAndPostUuidAndFilename(Long userId, UUID postUuid, String filename);
+
+    @Query("SELECT u.filename FROM MediaUpload u WHERE u.userId = :userId AND u.postUuid = :postUuid AND u.filename IN :filenames")
+    List<String> findReservedFilenames(@Param("userId") Long userId, @Param("postUuid") UUID postUuid,
+                                       @Param("filenames") Collection<String> filenames);
+}
@@ -0,0 +1,24 @@
+package com.tvz.mediaapp.backend.repository;
+
+import com.tvz.mediaapp.backend.model.MediaVariant;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface MediaVariantRepository extends JpaRepository<MediaVariant, Long> {
+
+    List<MediaVariant> findAllByPostUuidIn(Collection<UUID> postUuids);
+
+    List<MediaVariant> findAllByPostUuidAndFilenameIn(UUID postUuid, Collection<String> filenames);
+
+    @Modifying
+    @Query("DELETE FROM MediaVariant v WHERE v.postUuid = :postUuid AND v.filename IN :filenames")
+    int deleteAllByPostUuidAndFilenameIn(@Param("postUuid") UUID postUuid, @Param("filenames") Collection<String> filenames);
+}
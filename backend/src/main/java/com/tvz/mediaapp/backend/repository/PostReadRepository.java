@@ -0,0 +1,170 @@
+package com.tvz.mediaapp.backend.repository;
+
+import com.tvz.mediaapp.backend.metrics.RequestTags;
+import com.tvz.mediaapp.backend.model.Platform;
+import com.tvz.mediaapp.dto.PostDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+@Repository
+@RequiredArgsConstructor
+public class PostReadRepository {
+
+    private static final String POST_COLUMNS = """
+            SELECT p.uuid, p.title, p.content, p.publish_date, p.status, p.platform_mask, p.media_type, p.created_at, p.updated_at
+            FROM posts p
+            """;
+
+    private static final String FIND_ALL_BY_USER = POST_COLUMNS + """
+            WHERE p.user_id = :userId
+            %s
+            ORDER BY p.publish_date DESC, p.uuid DESC
+            LIMIT :limit
+            """;
+
+    private static final String FIND_PAGE_BY_USER_AFTER = POST_COLUMNS + """
+            WHERE p.user_id = :userId
+              AND (p.publish_date, p.uuid) < (:publishDate, :uuid)
+            %s
+            ORDER BY p.publish_date DESC, p.uuid DESC
+            LIMIT :limit
+            """;
+
+    private static final String PLATFORM_FILTER = "AND (p.platform_mask & :platformMask) <> 0";
+
+    private static final String POSTS_IN_RANGE = """
+            JOIN posts p ON p.uuid = c.post_uuid
+            WHERE p.user_id = :userId
+              AND (p.publish_date, p.uuid) >= (:lastPublishDate, :lastUuid)
+              AND (p.publish_date, p.uuid) <= (:firstPublishDate, :firstUuid)
+            """;
+
+    private static final String FIND_MEDIA_URIS = "SELECT c.post_uuid, c.media_uri FROM post_media_uris c\n" + POSTS_IN_RANGE;
+
+    private static final String FIND_MEDIA_URIS_BY_POSTS = "SELECT post_uuid, media_uri FROM post_media_uris WHERE post_uuid IN (:uuids)";
+
+    private static final RowMapper<PostDto> POST_ROW_MAPPER = (rs, rowNum) -> {
+        PostDto dto = new PostDto();
+        dto.setUuid(rs.getObject("uuid", UUID.class).toString());
+        dto.setTitle(rs.getString("title"));
+        dto.setContent(rs.getString("content"));
+        dto.setPublishDate(rs.getObject("publish_date", LocalDate.class).toString());
+        dto.setStatus(rs.getString("status"));
+        dto.setMediaType(rs.getString("media_type"));
+        dto.setCreatedAt(rs.getObject("created_at", LocalDateTime.class));
+        dto.setUpdatedAt(rs.getObject("updated_at", LocalDateTime.class));
+        dto.setPlatforms(Platform.fromMask(rs.getInt("platform_mask")));
+        dto.setMediaUris(new ArrayList<>());
+        return dto;
+    };
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+
+    public List<PostDto> findAllByUserId(Long userId, int platformMask, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("userId", userId)
+                .addValue("platformMask", platformMask)
+                .addValue("limit", limit);
+        return timed("findAllByUserId", () ->
+                withCollections(userId, jdbcTemplate.query(FIND_ALL_BY_USER.formatted(platformFilter(platformMask)), params, POST_ROW_MAPPER)));
+    }
+
+    public List<PostDto> findPageByUserIdAfter(Long userId, int platformMask, LocalDate publishDate, UUID uuid, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("userId", userId)
+                .addValue("platformMask", platformMask)
+                .addValue("publishDate", publishDate)
+                .addValue("uuid", uuid)
+                .addValue("limit", limit);
+        return timed("findPageByUserIdAfter", () ->
+                withCollections(userId, jdbcTemplate.query(FIND_PAGE_BY_USER_AFTER.formatted(platformFilter(platformMask)), params, POST_ROW_MAPPER)));
+    }
+
+    public Map<UUID, Set<String>> findMediaUrisByPostUuids(Collection<UUID> postUuids) {
+        Map<UUID, Set<String>> mediaUris = new HashMap<>();
+        if (postUuids.isEmpty()) {
+            return mediaUris;
+        }
+        return timed("findMediaUrisByPostUuids", () -> {
+            jdbcTemplate.query(FIND_MEDIA_URIS_BY_POSTS, new MapSqlParameterSource("uuids", postUuids), rs -> {
+                mediaUris.computeIfAbsent(rs.getObject("post_uuid", UUID.class), uuid -> new HashSet<>())
+                        .add(rs.getString("media_uri"));
+            });
+            return mediaUris;
+        });
+    }
+
+    // same meter and tags as Spring Data's repository timers, so the JDBC read path shows up next to them
+    private <T> T timed(String method, Supplier<T> query) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String state = "ERROR";
+        String exception = "None";
+        try {
+            T result = query.get();
+            state = "SUCCESS";
+            return result;
+        } catch (RuntimeException e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(meterRegistry.timer("spring.data.repository.invocations", Tags.of(
+                    Tag.of("repository", PostReadRepository.class.getSimpleName()),
+                    Tag.of("method", method),
+                    Tag.of("state", state),
+                    Tag.of("exception", exception),
+                    RequestTags.endpoint())));
+        }
+    }
+
+    private static String platformFilter(int platformMask) {
+        return platformMask != 0 ? PLATFORM_FILTER : "";
+    }
+
+    private List<PostDto> withCollections(Long userId, List<PostDto> posts) {
+        if (posts.isEmpty()) {
+            return posts;
+        }
+
+        Map<UUID, PostDto> postsByUuid = new HashMap<>(posts.size() * 2);
+        for (PostDto post : posts) {
+            postsByUuid.put(UUID.fromString(post.getUuid()), post);
+        }
+
+        PostDto first = posts.getFirst();
+        PostDto last = posts.getLast();
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("userId", userId)
+                .addValue("firstPublishDate", LocalDate.parse(first.getPublishDate()))
+                .addValue("firstUuid", UUID.fromString(first.getUuid()))
+                .addValue("lastPublishDate", LocalDate.parse(last.getPublishDate()))
+                .addValue("lastUuid", UUID.fromString(last.getUuid()));
+
+        jdbcTemplate.query(FIND_MEDIA_URIS, params, rs -> {
+            PostDto post = postsByUuid.get(rs.getObject("post_uuid", UUID.class));
+            if (post != null) {
+                post.getMediaUris().add(rs.getString("media_uri"));
+            }
+        });
+        return posts;
+    }
+}
@@ -2,9 +2,13 @@ package com.tvz.mediaapp.backend.repository;
 
 import com.tvz.mediaapp.backend.model.Post;
 import com.tvz.mediaapp.backend.model.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -14,5 +18,11 @@ public interface PostRepository extends JpaRepository<Post, UUID> {
 
     Optional<Post> findByUuidAndUser(UUID uuid, User user);
 
-    List<Post> findAllByUserOrderByPublishDateDesc(User user);
-}
\ No newline at end of file
+    boolean existsByUuidAndUserNot(UUID uuid, User user);
+
+    List<Post> findAllByUserAndChangeVersionGreaterThanAndChangeVersionLessThanEqualOrderByChangeVersionAsc(
+            User user, long after, long upTo, Limit limit);
+
+    @Query("SELECT p.uuid FROM Post p WHERE p.user = :user AND p.uuid IN :uuids")
+    List<UUID> findUuidsByUserAndUuidIn(@Param("user") User user, @Param("uuids") Collection<UUID> uuids);
+}
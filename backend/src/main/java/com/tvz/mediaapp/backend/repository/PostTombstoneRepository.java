@@ -0,0 +1,24 @@
+package com.tvz.mediaapp.backend.repository;
+
+import com.tvz.mediaapp.backend.model.PostTombstone;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface PostTombstoneRepository extends JpaRepository<PostTombstone, UUID> {
+
+    List<PostTombstone> findAllByUserIdAndChangeVersionGreaterThanAndChangeVersionLessThanEqualOrderByChangeVersionAsc(
+            Long userId, long after, long upTo, Limit limit);
+
+    @Modifying
+    @Query("DELETE FROM PostTombstone t WHERE t.deletedAt < :cutoff")
+    int deleteAllByDeletedAtBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,33 @@
+package com.tvz.mediaapp.backend.repository;
+
+import com.tvz.mediaapp.backend.model.StorageOutboxEntry;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface StorageOutboxRepository extends JpaRepository<StorageOutboxEntry, Long> {
+
+    /** Due entries that are first in line for their post, so a post in backoff never holds back other posts. */
+    @Query("""
+            SELECT e FROM StorageOutboxEntry e
+            WHERE e.status = :status AND e.nextAttemptAt <= :now
+              AND NOT EXISTS (
+                  SELECT 1 FROM StorageOutboxEntry earlier
+                  WHERE earlier.postUuid = e.postUuid AND earlier.status = :status AND earlier.id < e.id
+              )
+            ORDER BY e.id
+            """)
+    List<StorageOutboxEntry> findDueHeadsOfPostQueues(@Param("status") StorageOutboxEntry.Status status,
+                                                      @Param("now") LocalDateTime now, Limit limit);
+
+    Optional<StorageOutboxEntry> findFirstByStatusOrderByIdAsc(StorageOutboxEntry.Status status);
+
+    long countByStatus(StorageOutboxEntry.Status status);
+}
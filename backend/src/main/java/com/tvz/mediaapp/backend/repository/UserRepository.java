@@ -3,7 +3,12 @@ package com.tvz.mediaapp.backend.repository;
 
 import com.tvz.mediaapp.backend.model.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
@@ -15,4 +20,28 @@ public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByUsername(String username);
 
     boolean existsByEmail(String email);
+
+    @Modifying
+    @Query("UPDATE User u SET u.postsVersion = u.postsVersion + 1 WHERE u.id = :userId")
+    int incrementPostsVersion(@Param("userId") Long userId);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.password = :newPassword WHERE u.id = :userId AND u.password = :oldPassword")
+    int replacePassword(@Param("userId") Long userId, @Param("oldPassword") String oldPassword, @Param("newPassword") String newPassword);
+
+    @Query("SELECT u.postsVersion FROM User u WHERE u.id = :userId")
+    long findPostsVersionById(@Param("userId") Long userId);
+
+    @Query("SELECT u.tombstonesPrunedVersion FROM User u WHERE u.id = :userId")
+    long findTombstonesPrunedVersionById(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("""
+            UPDATE User u SET u.tombstonesPrunedVersion = (
+                SELECT MAX(t.changeVersion) FROM PostTombstone t WHERE t.userId = u.id AND t.deletedAt < :cutoff
+            )
+            WHERE EXISTS (SELECT 1 FROM PostTombstone t WHERE t.userId = u.id AND t.deletedAt < :cutoff)
+            """)
+    int markTombstonesPrunedBefore(@Param("cutoff") LocalDateTime cutoff);
 }
@@ -0,0 +1,29 @@
+package com.tvz.mediaapp.backend.scheduler;
+
+import com.tvz.mediaapp.backend.service.PostService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "scheduling.enabled", havingValue = "true", matchIfMissing = true)
+public class PostTombstoneScheduler {
+
+    private final PostService postService;
+
+    @Scheduled(fixedDelayString = "${posts.changes.tombstone-prune-interval-ms}", initialDelay = 300000)
+    public void pruneTombstones() {
+        try {
+            int pruned = postService.pruneTombstones();
+            if (pruned > 0) {
+                log.info("Pruned {} post tombstones past retention", pruned);
+            }
+        } catch (Exception e) {
+            log.error("Error while pruning post tombstones", e);
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.tvz.mediaapp.backend.scheduler;
 
+import com.tvz.mediaapp.backend.service.MediaUploadService;
+import com.tvz.mediaapp.backend.service.PendingUploadSweepResult;
 import com.tvz.mediaapp.backend.service.StorageService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -15,13 +17,20 @@ import org.springframework.stereotype.Component;
 public class StorageCleanupScheduler {
 
     private final StorageService storageService;
+    private final MediaUploadService mediaUploadService;
 
     @Scheduled(fixedDelay = 3600000, initialDelay = 300000) // 1 hour = 3600000ms, 5 min = 300000ms
     public void cleanupPendingUploads() {
         log.info("Starting scheduled cleanup of pending uploads");
         try {
-            storageService.cleanupPendingUploads();
-            log.info("Completed scheduled cleanup of pending uploads");
+            PendingUploadSweepResult result = storageService.cleanupPendingUploads();
+            log.info("Completed scheduled cleanup of pending uploads: scanned {}, deleted {}{}", result.scanned(), result.deleted(),
+                    result.completed() ? "" : ", resuming on next run");
+            int aborted = storageService.abortStaleMultipartUploads();
+            if (aborted > 0) {
+                log.info("Aborted {} stale multipart uploads", aborted);
+            }
+            mediaUploadService.reclaimAbandonedUploads();
         } catch (Exception e) {
             log.error("Error during scheduled cleanup of pending uploads", e);
         }
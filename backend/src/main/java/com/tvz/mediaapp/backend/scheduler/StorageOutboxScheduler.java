@@ -0,0 +1,20 @@
+package com.tvz.mediaapp.backend.scheduler;
+
+import com.tvz.mediaapp.backend.service.StorageOutboxService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "scheduling.enabled", havingValue = "true", matchIfMissing = true)
+public class StorageOutboxScheduler {
+
+    private final StorageOutboxService storageOutboxService;
+
+    @Scheduled(fixedDelayString = "${storage.outbox.poll-interval-ms}")
+    public void dispatchOutbox() {
+        storageOutboxService.requestDispatch();
+    }
+}
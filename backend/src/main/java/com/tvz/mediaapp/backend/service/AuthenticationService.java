@@ -8,42 +8,44 @@ import com.tvz.mediaapp.dto.AuthResponseDto;
 import com.tvz.mediaapp.dto.LoginRequestDto;
 import com.tvz.mediaapp.dto.RegisterRequestDto;
 import com.tvz.mediaapp.dto.UserDto;
+import io.jsonwebtoken.JwtException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Locale;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class AuthenticationService {
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
     private final JwtService jwtService;
     private final AuthenticationManager authenticationManager;
+    private final UserPrincipalService userPrincipalService;
 
-    @Transactional
     public AuthResponseDto register(RegisterRequestDto request) {
         log.info("Attempting to register user with username: {}", request.getUsername());
-        if (userRepository.existsByUsername(request.getUsername())) {
-            throw new UserAlreadyExistsException("Username is already taken: " + request.getUsername());
-        }
-        if (userRepository.existsByEmail(request.getEmail())) {
-            throw new UserAlreadyExistsException("Email is already in use: " + request.getEmail());
-        }
-
         User user = User.builder()
                 .username(request.getUsername())
                 .email(request.getEmail())
-                .password(passwordEncoder.encode(request.getPassword()))
+                .password(passwordHashingService.encode(request.getPassword()))
                 .role(Role.USER)
                 .build();
 
-        userRepository.save(user);
+        // the unique constraints decide, so concurrent registrations cannot both pass a check and insert
+        try {
+            userRepository.save(user);
+        } catch (DataIntegrityViolationException e) {
+            throw duplicateUser(request, e);
+        }
+        userPrincipalService.evict(user.getUsername());
         log.info("User registered successfully: {}", user.getUsername());
 
         String accessToken = jwtService.generateToken(user);
@@ -61,6 +63,9 @@ public class AuthenticationService {
         User user = userRepository.findByUsernameOrEmail(request.getLogin(), request.getLogin())
                 .orElseThrow(() -> new UsernameNotFoundException("User not found during login"));
 
+        passwordHashingService.rehashInBackground(request.getPassword(), user.getPassword(),
+                rehashed -> userRepository.replacePassword(user.getId(), user.getPassword(), rehashed));
+
         String accessToken = jwtService.generateToken(user);
         String refreshToken = jwtService.generateRefreshToken(user);
 
@@ -69,22 +74,44 @@ public class AuthenticationService {
     }
 
     public AuthResponseDto refreshToken(String refreshToken) {
-        final String username = jwtService.extractUsername(refreshToken);
+        final String username;
+        try {
+            username = jwtService.validateToken(refreshToken).getSubject();
+        } catch (JwtException e) {
+            throw new IllegalArgumentException("Refresh token is invalid or expired");
+        }
         if (username == null) {
             throw new IllegalArgumentException("Invalid refresh token");
         }
         User user = this.userRepository.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found from refresh token"));
 
-        if (!jwtService.isTokenValid(refreshToken, user)) {
-            throw new IllegalArgumentException("Refresh token is invalid or expired");
-        }
-
         String newAccessToken = jwtService.generateToken(user);
         return buildAuthResponse(user, newAccessToken, refreshToken);
     }
 
 
+    private UserAlreadyExistsException duplicateUser(RegisterRequestDto request, DataIntegrityViolationException e) {
+        String constraint = e.getCause() instanceof ConstraintViolationException violation && violation.getConstraintName() != null
+                ? violation.getConstraintName().toLowerCase(Locale.ROOT)
+                : "";
+        boolean usernameTaken;
+        if (constraint.contains(User.USERNAME_CONSTRAINT)) {
+            usernameTaken = true;
+        } else if (constraint.contains(User.EMAIL_CONSTRAINT)) {
+            usernameTaken = false;
+        } else {
+            // schemas created before the constraints were named, or a violation we cannot attribute
+            usernameTaken = userRepository.existsByUsername(request.getUsername());
+            if (!usernameTaken && !userRepository.existsByEmail(request.getEmail())) {
+                throw e;
+            }
+        }
+        return usernameTaken
+                ? new UserAlreadyExistsException("Username is already taken: " + request.getUsername())
+                : new UserAlreadyExistsException("Email is already in use: " + request.getEmail());
+    }
+
     private AuthResponseDto buildAuthResponse(User user, String accessToken, String refreshToken) {
         UserDto userDto = UserDto.builder()
                 .id(user.getId())
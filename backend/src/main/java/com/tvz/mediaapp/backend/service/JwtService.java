@@ -2,22 +2,39 @@ package com.tvz.mediaapp.backend.service;
 
 import com.tvz.mediaapp.backend.model.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
 @Service
+@RequiredArgsConstructor
 public class JwtService {
 
+    public static final String USER_ID_CLAIM = "userId";
+    public static final String EMAIL_CLAIM = "email";
+    public static final String ROLE_CLAIM = "role";
+
+    private final MeterRegistry meterRegistry;
+
     @Value("${jwt.secret}")
     private String secretKey;
 
@@ -27,18 +44,38 @@ public class JwtService {
     @Value("${jwt.refresh-token-expiration-ms}")
     private long refreshExpiration;
 
+    @Value("${jwt.verified-cache-size}")
+    private int verifiedCacheSize;
+
+    private SecretKey signInKey;
+    private JwtParser jwtParser;
+    private final Map<String, Claims> verifiedTokens = new ConcurrentHashMap<>();
+    private Counter verifiedCacheHits;
+    private Counter verifiedCacheMisses;
+
+    @PostConstruct
+    void init() {
+        signInKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secretKey));
+        jwtParser = Jwts.parser()
+                .verifyWith(signInKey)
+                .build();
+        verifiedCacheHits = meterRegistry.counter("auth.jwt.cache", "result", "hit");
+        verifiedCacheMisses = meterRegistry.counter("auth.jwt.cache", "result", "miss");
+    }
+
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+        return claimsResolver.apply(validateToken(token));
     }
 
     public String generateToken(User userDetails) {
         Map<String, Object> claims = new HashMap<>();
-        claims.put("userId", userDetails.getId());
+        claims.put(USER_ID_CLAIM, userDetails.getId());
+        claims.put(EMAIL_CLAIM, userDetails.getEmail());
+        claims.put(ROLE_CLAIM, userDetails.getRole().name());
         return generateToken(claims, userDetails, jwtExpiration);
     }
 
@@ -53,33 +90,48 @@ public class JwtService {
                 .subject(userDetails.getUsername())
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSignInKey())
+                .signWith(signInKey)
                 .compact();
     }
 
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
-    }
-
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+        return userDetails.getUsername().equals(validateToken(token).getSubject());
     }
 
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    public Claims validateToken(String token) {
+        String tokenHash = hash(token);
+        Claims cached = verifiedTokens.get(tokenHash);
+        if (cached != null) {
+            if (cached.getExpiration().after(new Date())) {
+                verifiedCacheHits.increment();
+                return cached;
+            }
+            verifiedTokens.remove(tokenHash);
+        }
+        verifiedCacheMisses.increment();
+
+        Claims claims = jwtParser.parseSignedClaims(token).getPayload();
+        cacheVerifiedClaims(tokenHash, claims);
+        return claims;
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSignInKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    private void cacheVerifiedClaims(String tokenHash, Claims claims) {
+        if (verifiedTokens.size() >= verifiedCacheSize) {
+            Date now = new Date();
+            verifiedTokens.values().removeIf(c -> !c.getExpiration().after(now));
+            if (verifiedTokens.size() >= verifiedCacheSize) {
+                verifiedTokens.clear();
+            }
+        }
+        verifiedTokens.put(tokenHash, claims);
     }
 
-    private SecretKey getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(secretKey);
-        return Keys.hmacShaKeyFor(keyBytes);
+    private String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
 }
@@ -0,0 +1,7 @@
+package com.tvz.mediaapp.backend.service;
+
+import java.util.List;
+import java.util.Map;
+
+public record MediaCommitResult(List<String> committed, List<String> missing, Map<String, String> failed) {
+}
@@ -0,0 +1,126 @@
+package com.tvz.mediaapp.backend.service;
+
+import com.tvz.mediaapp.backend.model.MediaUpload;
+import com.tvz.mediaapp.backend.model.MediaVariant;
+import com.tvz.mediaapp.backend.model.User;
+import com.tvz.mediaapp.backend.repository.MediaUploadRepository;
+import com.tvz.mediaapp.backend.repository.PostReadRepository;
+import com.tvz.mediaapp.backend.repository.PostRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MediaUploadService {
+
+    private final MediaUploadRepository mediaUploadRepository;
+    private final PostRepository postRepository;
+    private final PostReadRepository postReadRepository;
+    private final StorageService storageService;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${storage.direct-upload.max-age-ms}")
+    private long maxAgeMs;
+
+    @Value("${storage.direct-upload.batch-size}")
+    private int batchSize;
+
+    private Counter reclaimed;
+
+    @PostConstruct
+    public void init() {
+        reclaimed = meterRegistry.counter("storage.direct-upload.reclaimed");
+    }
+
+    @Transactional
+    public void reserve(User user, UUID postUuid, String filename) {
+        StorageService.requireValidFilename(filename);
+        if (postRepository.existsByUuidAndUserNot(postUuid, user)) {
+            throw new NoSuchElementException("Post not found with UUID: " + postUuid);
+        }
+        mediaUploadRepository.save(MediaUpload.builder()
+                .postUuid(postUuid)
+                .filename(filename)
+                .userId(user.getId())
+                .build());
+    }
+
+    @Transactional(readOnly = true)
+    public void requireReservation(User user, UUID postUuid, String filename) {
+        if (postRepository.existsByUuidAndUserNot(postUuid, user)
+                || !mediaUploadRepository.existsByUserIdAndPostUuidAndFilename(user.getId(), postUuid, filename)) {
+            throw new NoSuchElementException("No upload of " + filename + " reserved for post " + postUuid);
+        }
+    }
+
+    public int reclaimAbandonedUploads() {
+        LocalDateTime cutoff = LocalDateTime.now().minusNanos(maxAgeMs * 1_000_000);
+        long afterId = 0;
+        int deleted = 0;
+        List<MediaUpload> uploads;
+        do {
+            uploads = mediaUploadRepository.findAllByCreatedAtBeforeAndIdGreaterThanOrderByIdAsc(cutoff, afterId, Limit.of(batchSize));
+            if (uploads.isEmpty()) {
+                break;
+            }
+            deleted += reclaim(uploads);
+            afterId = uploads.getLast().getId();
+        } while (uploads.size() == batchSize);
+        return deleted;
+    }
+
+    private int reclaim(List<MediaUpload> uploads) {
+        Map<UUID, List<MediaUpload>> uploadsByPost = new LinkedHashMap<>();
+        uploads.forEach(upload -> uploadsByPost.computeIfAbsent(upload.getPostUuid(), uuid -> new ArrayList<>()).add(upload));
+        Map<UUID, Set<String>> referenced = postReadRepository.findMediaUrisByPostUuids(uploadsByPost.keySet());
+
+        List<MediaUpload> done = new ArrayList<>();
+        int deleted = 0;
+        for (Map.Entry<UUID, List<MediaUpload>> entry : uploadsByPost.entrySet()) {
+            Set<String> inUse = new HashSet<>();
+            for (String mediaUri : referenced.getOrDefault(entry.getKey(), Set.of())) {
+                inUse.add(mediaUri);
+                for (MediaVariant.Kind kind : MediaVariant.Kind.values()) {
+                    inUse.add(kind.filenameFor(mediaUri));
+                }
+            }
+
+            List<MediaUpload> abandoned = entry.getValue().stream()
+                    .filter(upload -> !inUse.contains(upload.getFilename()))
+                    .toList();
+            Set<String> failed = abandoned.isEmpty() ? Set.of() : storageService.deleteUploadedObjects(entry.getKey(),
+                    abandoned.stream().map(MediaUpload::getFilename).toList());
+
+            for (MediaUpload upload : entry.getValue()) {
+                if (!failed.contains(upload.getFilename())) {
+                    done.add(upload);
+                }
+            }
+            deleted += abandoned.size() - failed.size();
+        }
+
+        // uploads that failed to delete keep their row and are retried on the next run
+        mediaUploadRepository.deleteAllInBatch(done);
+        reclaimed.increment(deleted);
+        log.info("Reclaimed {} abandoned direct uploads, {} in use by their posts", deleted, done.size() - deleted);
+        return deleted;
+    }
+}
@@ -0,0 +1,351 @@
+package com.tvz.mediaapp.backend.service;
+
+import com.tvz.mediaapp.backend.model.MediaVariant;
+import com.tvz.mediaapp.backend.repository.MediaVariantRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.jcodec.api.FrameGrab;
+import org.jcodec.common.io.NIOUtils;
+import org.jcodec.common.io.SeekableByteChannel;
+import org.jcodec.common.model.Picture;
+import org.jcodec.scale.AWTUtil;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MediaVariantService {
+
+    private static final Set<String> VIDEO_EXTENSIONS = Set.of("mp4", "m4v", "mov");
+    private static final List<MediaVariant.Kind> LARGEST_FIRST = Arrays.stream(MediaVariant.Kind.values())
+            .sorted(Comparator.comparingInt(MediaVariant.Kind::getMaxSize).reversed())
+            .toList();
+
+    private final StorageService storageService;
+    private final MediaVariantRepository mediaVariantRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${storage.variants.workers}")
+    private int workers;
+
+    @Value("${storage.variants.queue-capacity}")
+    private int queueCapacity;
+
+    @Value("${storage.variants.jpeg-quality}")
+    private float jpegQuality;
+
+    @Value("${storage.variants.video-frame}")
+    private int videoFrame;
+
+    @Value("${storage.variants.max-pixels}")
+    private long maxPixels;
+
+    private ThreadPoolExecutor executor;
+    private Timer generationTimer;
+    private Counter generationFailures;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadCount = new AtomicInteger();
+        // when the queue is full the submitting thread does the work itself, which throttles producers
+        executor = new ThreadPoolExecutor(workers, workers, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "media-variants-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        generationTimer = meterRegistry.timer("storage.variants.generation");
+        generationFailures = meterRegistry.counter("storage.variants.failures");
+        Gauge.builder("storage.variants.queue", executor, e -> e.getQueue().size())
+                .description("Media files waiting for variant generation")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public Map<String, String> generateVariants(UUID postUuid, List<String> filenames) {
+        Map<String, Future<List<MediaVariant>>> jobs = new LinkedHashMap<>();
+        for (String filename : filenames) {
+            jobs.put(filename, executor.submit(() -> generationTimer.recordCallable(() -> generate(postUuid, filename))));
+        }
+
+        List<MediaVariant> generated = new ArrayList<>();
+        Map<String, String> failed = new LinkedHashMap<>();
+        for (Map.Entry<String, Future<List<MediaVariant>>> job : jobs.entrySet()) {
+            try {
+                generated.addAll(job.getValue().get());
+            } catch (ExecutionException e) {
+                log.error("Could not generate variants of {} for post {}", job.getKey(), postUuid, e.getCause());
+                generationFailures.increment();
+                failed.put(job.getKey(), e.getCause().toString());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failed.put(job.getKey(), "Interrupted");
+            }
+        }
+
+        saveVariants(postUuid, generated);
+        log.info("Generated {} variants for {} of {} files of post {}", generated.size(), filenames.size() - failed.size(), filenames.size(), postUuid);
+        return failed;
+    }
+
+    @Transactional
+    public void deleteVariants(UUID postUuid, List<String> filenames) {
+        mediaVariantRepository.deleteAllByPostUuidAndFilenameIn(postUuid, filenames);
+    }
+
+    public Map<UUID, Map<String, String>> resolveObjects(Map<UUID, List<String>> filesByPost, boolean thumbnailsOnly, Integer size) {
+        Map<UUID, Map<MediaVariant.Kind, Map<String, MediaVariant>>> variants = new HashMap<>();
+        if (size != null && !filesByPost.isEmpty()) {
+            for (MediaVariant variant : mediaVariantRepository.findAllByPostUuidIn(filesByPost.keySet())) {
+                variants.computeIfAbsent(variant.getPostUuid(), uuid -> new HashMap<>())
+                        .computeIfAbsent(variant.getKind(), kind -> new HashMap<>())
+                        .put(variant.getFilename(), variant);
+            }
+        }
+
+        Map<UUID, Map<String, String>> objectsByPost = new LinkedHashMap<>();
+        filesByPost.forEach((postUuid, filenames) -> {
+            Map<MediaVariant.Kind, Map<String, MediaVariant>> postVariants = variants.getOrDefault(postUuid, Map.of());
+            Map<String, String> objects = new LinkedHashMap<>();
+            for (String filename : filenames) {
+                String object = size != null ? smallestFitting(postVariants, filename, size) : null;
+                if (object == null) {
+                    object = thumbnailsOnly ? MediaVariant.Kind.THUMBNAIL.filenameFor(filename) : filename;
+                }
+                objects.put(filename, object);
+            }
+            objectsByPost.put(postUuid, objects);
+        });
+        return objectsByPost;
+    }
+
+    private static String smallestFitting(Map<MediaVariant.Kind, Map<String, MediaVariant>> postVariants, String filename, int size) {
+        List<MediaVariant> candidates = new ArrayList<>();
+        for (Map<String, MediaVariant> byFilename : postVariants.values()) {
+            MediaVariant variant = byFilename.get(filename);
+            if (variant != null) {
+                candidates.add(variant);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return null;
+        }
+        candidates.sort(Comparator.<MediaVariant>comparingInt(v -> Math.max(v.getWidth(), v.getHeight()))
+                .thenComparing(MediaVariant::getKind));
+        for (MediaVariant variant : candidates) {
+            if (Math.max(variant.getWidth(), variant.getHeight()) >= size) {
+                return variant.getKind().filenameFor(filename);
+            }
+        }
+        // no variant is large enough, unless the source itself is smaller than the biggest variant
+        MediaVariant largest = candidates.getLast();
+        return Math.max(largest.getWidth(), largest.getHeight()) < largest.getKind().getMaxSize()
+                ? largest.getKind().filenameFor(filename)
+                : filename;
+    }
+
+    private List<MediaVariant> generate(UUID postUuid, String filename) throws IOException {
+        Path source = Files.createTempFile("media-variant-", "-" + filename);
+        try {
+            try {
+                storageService.downloadMediaObject(postUuid, filename, source);
+            } catch (NoSuchElementException e) {
+                log.warn("Media file {} of post {} does not exist, skipping variants", filename, postUuid);
+                return List.of();
+            }
+
+            BufferedImage image;
+            try {
+                image = isVideo(filename) ? grabVideoFrame(source) : readImage(source);
+            } catch (IllegalArgumentException e) {
+                log.warn("Media file {} of post {} is rejected, skipping variants: {}", filename, postUuid, e.getMessage());
+                return List.of();
+            }
+            if (image == null) {
+                log.warn("Media file {} of post {} is not a supported image or video, skipping variants", filename, postUuid);
+                return List.of();
+            }
+
+            List<MediaVariant> variants = new ArrayList<>();
+            // largest first, so each smaller variant is scaled down from the previous one instead of the original
+            for (MediaVariant.Kind kind : LARGEST_FIRST) {
+                BufferedImage resized = resize(image, kind.getMaxSize());
+                image = resized;
+                byte[] jpeg = encodeJpeg(resized);
+                storageService.uploadMediaObject(postUuid, kind.filenameFor(filename), jpeg, "image/jpeg");
+                variants.add(MediaVariant.builder()
+                        .postUuid(postUuid)
+                        .filename(filename)
+                        .kind(kind)
+                        .width(resized.getWidth())
+                        .height(resized.getHeight())
+                        .sizeBytes(jpeg.length)
+                        .build());
+            }
+            return variants;
+        } finally {
+            Files.deleteIfExists(source);
+        }
+    }
+
+    private void saveVariants(UUID postUuid, List<MediaVariant> generated) {
+        if (generated.isEmpty()) {
+            return;
+        }
+        Map<String, MediaVariant> existing = new HashMap<>();
+        List<String> filenames = generated.stream().map(MediaVariant::getFilename).distinct().toList();
+        for (MediaVariant variant : mediaVariantRepository.findAllByPostUuidAndFilenameIn(postUuid, filenames)) {
+            existing.put(variant.getFilename() + "/" + variant.getKind(), variant);
+        }
+        for (MediaVariant variant : generated) {
+            MediaVariant previous = existing.get(variant.getFilename() + "/" + variant.getKind());
+            if (previous != null) {
+                variant.setId(previous.getId());
+            }
+        }
+        mediaVariantRepository.saveAll(generated);
+    }
+
+    private BufferedImage readImage(Path source) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(source.toFile())) {
+            Iterator<ImageReader> readers = input != null ? ImageIO.getImageReaders(input) : null;
+            if (readers == null || !readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                // the header gives the size without decoding any pixels
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > maxPixels) {
+                    throw new IllegalArgumentException("Image is " + width + "x" + height + ", above the limit of " + maxPixels + " pixels");
+                }
+                // decode every n-th pixel down to twice the largest variant, so the full-resolution raster is never held
+                int subsampling = Math.max(1, Math.max(width, height) / (LARGEST_FIRST.getFirst().getMaxSize() * 2));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private BufferedImage grabVideoFrame(Path source) throws IOException {
+        try (SeekableByteChannel channel = NIOUtils.readableChannel(source.toFile())) {
+            FrameGrab grab = FrameGrab.createFrameGrab(channel);
+            int totalFrames = grab.getVideoTrack().getMeta().getTotalFrames();
+            grab.seekToFramePrecise(Math.max(0, Math.min(videoFrame, totalFrames - 1)));
+            Picture picture = grab.getNativeFrame();
+            return picture != null ? AWTUtil.toBufferedImage(picture) : null;
+        } catch (Exception e) {
+            throw new IOException("Could not read a frame from " + source.getFileName(), e);
+        }
+    }
+
+    private static BufferedImage resize(BufferedImage image, int maxSize) {
+        double scale = Math.min(1.0, (double) maxSize / Math.max(image.getWidth(), image.getHeight()));
+        int targetWidth = Math.max(1, (int) Math.round(image.getWidth() * scale));
+        int targetHeight = Math.max(1, (int) Math.round(image.getHeight() * scale));
+
+        BufferedImage current = image;
+        int width = image.getWidth();
+        int height = image.getHeight();
+        // halve step by step so bilinear sampling does not skip source pixels on large reductions
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            if (width < targetWidth * 2 && height < targetHeight * 2) {
+                width = targetWidth;
+                height = targetHeight;
+            }
+            current = draw(current, width, height);
+        } while (width != targetWidth || height != targetHeight);
+        return current;
+    }
+
+    private static BufferedImage draw(BufferedImage source, int width, int height) {
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = target.createGraphics();
+        try {
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, width, height);
+            graphics.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            graphics.dispose();
+        }
+        return target;
+    }
+
+    private byte[] encodeJpeg(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream stream = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(stream);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(jpegQuality);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    private static boolean isVideo(String filename) {
+        int lastDotIndex = filename.lastIndexOf('.');
+        return lastDotIndex > 0 && VIDEO_EXTENSIONS.contains(filename.substring(lastDotIndex + 1).toLowerCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,150 @@
+package com.tvz.mediaapp.backend.service;
+
+import com.tvz.mediaapp.backend.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * BCrypt on a dedicated pool so a burst of logins cannot occupy every request thread with hashing.
+ * Work beyond the queue, or work that waits too long for a worker, is refused with
+ * {@link ServiceOverloadedException} instead of piling up.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PasswordHashingService implements PasswordEncoder {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${auth.password.bcrypt-strength}")
+    private int bcryptStrength;
+
+    @Value("${auth.password.workers}")
+    private int workers;
+
+    @Value("${auth.password.queue-capacity}")
+    private int queueCapacity;
+
+    @Value("${auth.password.max-wait-ms}")
+    private long maxWaitMs;
+
+    private BCryptPasswordEncoder delegate;
+    private ThreadPoolExecutor executor;
+    private Timer encodeTimer;
+    private Timer matchesTimer;
+    private Timer rehashTimer;
+    private Counter rejected;
+
+    @PostConstruct
+    public void init() {
+        delegate = new BCryptPasswordEncoder(bcryptStrength);
+        int poolSize = workers > 0 ? workers : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        encodeTimer = meterRegistry.timer("auth.password.hashing", "operation", "encode");
+        matchesTimer = meterRegistry.timer("auth.password.hashing", "operation", "matches");
+        rehashTimer = meterRegistry.timer("auth.password.hashing", "operation", "rehash");
+        rejected = meterRegistry.counter("auth.password.rejected");
+        Gauge.builder("auth.password.queue", executor, e -> e.getQueue().size())
+                .description("Password hashing requests waiting for a worker")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(() -> encodeTimer.recordCallable(() -> delegate.encode(rawPassword)));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(() -> matchesTimer.recordCallable(() -> delegate.matches(rawPassword, encodedPassword)));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    /**
+     * Re-encodes a verified password at the current strength in the background when its hash is
+     * weaker. Skipped under load, the next login tries again.
+     */
+    public void rehashInBackground(String rawPassword, String encodedPassword, Consumer<String> onRehashed) {
+        if (!upgradeEncoding(encodedPassword)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    onRehashed.accept(rehashTimer.record(() -> delegate.encode(rawPassword)));
+                } catch (RuntimeException e) {
+                    log.warn("Could not upgrade password hash", e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.debug("Skipped password hash upgrade, hashing pool is saturated");
+        }
+    }
+
+    private <T> T run(Callable<T> hashing) {
+        Future<T> result;
+        try {
+            result = executor.submit(hashing);
+        } catch (RejectedExecutionException e) {
+            throw overloaded();
+        }
+        try {
+            return result.get(maxWaitMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            result.cancel(true);
+            throw overloaded();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.cancel(true);
+            throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+        }
+    }
+
+    private ServiceOverloadedException overloaded() {
+        rejected.increment();
+        return new ServiceOverloadedException("Too many sign-in requests, please retry shortly");
+    }
+}
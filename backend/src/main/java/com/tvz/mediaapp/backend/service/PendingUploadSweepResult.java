@@ -0,0 +1,4 @@
+package com.tvz.mediaapp.backend.service;
+
+public record PendingUploadSweepResult(long scanned, long deleted, boolean completed) {
+}
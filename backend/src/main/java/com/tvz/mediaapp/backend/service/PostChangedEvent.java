@@ -0,0 +1,6 @@
+package com.tvz.mediaapp.backend.service;
+
+import com.tvz.mediaapp.dto.PostEventDto;
+
+public record PostChangedEvent(Long userId, PostEventDto payload) {
+}
@@ -1,16 +1,33 @@
 package com.tvz.mediaapp.backend.service;
 
+import com.tvz.mediaapp.backend.exception.PostAlreadyExistsException;
+import com.tvz.mediaapp.backend.model.Platform;
 import com.tvz.mediaapp.backend.model.Post;
+import com.tvz.mediaapp.backend.model.PostTombstone;
+import com.tvz.mediaapp.backend.model.StorageOutboxEntry;
 import com.tvz.mediaapp.backend.model.User;
+import com.tvz.mediaapp.backend.repository.MediaUploadRepository;
+import com.tvz.mediaapp.backend.repository.PostReadRepository;
 import com.tvz.mediaapp.backend.repository.PostRepository;
+import com.tvz.mediaapp.backend.repository.PostTombstoneRepository;
+import com.tvz.mediaapp.backend.repository.UserRepository;
+import com.tvz.mediaapp.dto.PostChangesDto;
 import com.tvz.mediaapp.dto.PostDto;
+import com.tvz.mediaapp.dto.PostEventDto;
+import com.tvz.mediaapp.dto.PostPageDto;
 import com.tvz.mediaapp.dto.PostRequestDto;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.*;
 
 @Service
@@ -18,27 +35,154 @@ import java.util.*;
 @Slf4j
 public class PostService {
     private final PostRepository postRepository;
-    private final StorageService storageService;
+    private final PostReadRepository postReadRepository;
+    private final PostTombstoneRepository postTombstoneRepository;
+    private final MediaUploadRepository mediaUploadRepository;
+    private final UserRepository userRepository;
+    private final StorageOutboxService storageOutboxService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${posts.unpaged-limit}")
+    private int unpagedLimit;
+
+    @Value("${posts.page.max-limit}")
+    private int maxPageLimit;
+
+    @Value("${posts.changes.max-limit}")
+    private int maxChangesLimit;
+
+    @Value("${posts.changes.tombstone-retention-ms}")
+    private long tombstoneRetentionMs;
 
     @Transactional(readOnly = true)
     public List<PostDto> getAllPostsForUser(User user) {
-        return postRepository.findAllByUserOrderByPublishDateDesc(user).stream()
-                .map(this::convertToDto)
-                .toList();
+        List<PostDto> posts = postReadRepository.findAllByUserId(user.getId(), 0, unpagedLimit);
+        if (posts.size() == unpagedLimit) {
+            log.warn("Unpaged post list for user {} truncated at {} posts", user.getUsername(), unpagedLimit);
+        }
+        return posts;
+    }
+
+    public String getPostsETag(User user) {
+        return "\"" + user.getId() + "-" + userRepository.findPostsVersionById(user.getId()) + "\"";
+    }
+
+    @Transactional(readOnly = true)
+    public PostPageDto getPostPageForUser(User user, String after, int limit, List<String> platforms) {
+        int pageSize = Math.clamp(limit, 1, maxPageLimit);
+        int platformMask = Platform.toMask(platforms);
+
+        List<PostDto> posts;
+        if (after == null || after.isBlank()) {
+            posts = postReadRepository.findAllByUserId(user.getId(), platformMask, pageSize + 1);
+        } else {
+            PostCursor cursor = PostCursor.decode(after);
+            posts = postReadRepository.findPageByUserIdAfter(user.getId(), platformMask, cursor.publishDate(), cursor.uuid(), pageSize + 1);
+        }
+
+        String next = null;
+        if (posts.size() > pageSize) {
+            posts = posts.subList(0, pageSize);
+            PostDto last = posts.get(pageSize - 1);
+            next = new PostCursor(LocalDate.parse(last.getPublishDate()), UUID.fromString(last.getUuid())).encode();
+        }
+
+        return PostPageDto.builder()
+                .items(posts)
+                .next(next)
+                .build();
+    }
+
+    @Transactional(readOnly = true)
+    public PostChangesDto getChangesForUser(User user, long since) {
+        // Each statement below sees its own snapshot, so both queries stop at the version read first: a change
+        // committed in between is left for the next sync instead of being skipped by a version reported past it.
+        long currentVersion = userRepository.findPostsVersionById(user.getId());
+        if (currentVersion == since) {
+            return PostChangesDto.builder()
+                    .version(currentVersion)
+                    .posts(List.of())
+                    .deleted(List.of())
+                    .build();
+        }
+
+        Limit fetchLimit = Limit.of(maxChangesLimit + 1);
+
+        Iterator<Post> posts = postRepository
+                .findAllByUserAndChangeVersionGreaterThanAndChangeVersionLessThanEqualOrderByChangeVersionAsc(
+                        user, since, currentVersion, fetchLimit).iterator();
+        Iterator<PostTombstone> tombstones = postTombstoneRepository
+                .findAllByUserIdAndChangeVersionGreaterThanAndChangeVersionLessThanEqualOrderByChangeVersionAsc(
+                        user.getId(), since, currentVersion, fetchLimit).iterator();
+
+        // read after the tombstones, so a prune that committed before that query is always noticed
+        if (since > 0 && since < userRepository.findTombstonesPrunedVersionById(user.getId())) {
+            return PostChangesDto.builder()
+                    .version(0)
+                    .posts(List.of())
+                    .deleted(List.of())
+                    .hasMore(true)
+                    .reset(true)
+                    .build();
+        }
+
+        List<PostDto> changedPosts = new ArrayList<>();
+        List<String> deletedUuids = new ArrayList<>();
+        Post nextPost = posts.hasNext() ? posts.next() : null;
+        PostTombstone nextTombstone = tombstones.hasNext() ? tombstones.next() : null;
+        long lastVersion = 0;
+
+        while ((nextPost != null || nextTombstone != null) && changedPosts.size() + deletedUuids.size() < maxChangesLimit) {
+            if (nextTombstone == null || (nextPost != null && nextPost.getChangeVersion() < nextTombstone.getChangeVersion())) {
+                changedPosts.add(convertToDto(nextPost));
+                lastVersion = nextPost.getChangeVersion();
+                nextPost = posts.hasNext() ? posts.next() : null;
+            } else {
+                deletedUuids.add(nextTombstone.getUuid().toString());
+                lastVersion = nextTombstone.getChangeVersion();
+                nextTombstone = tombstones.hasNext() ? tombstones.next() : null;
+            }
+        }
+
+        boolean hasMore = nextPost != null || nextTombstone != null;
+        return PostChangesDto.builder()
+                .version(hasMore ? lastVersion : currentVersion)
+                .posts(changedPosts)
+                .deleted(deletedUuids)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    @Transactional
+    public int pruneTombstones() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(Duration.ofMillis(tombstoneRetentionMs));
+        userRepository.markTombstonesPrunedBefore(cutoff);
+        return postTombstoneRepository.deleteAllByDeletedAtBefore(cutoff);
     }
 
     @Transactional
     public PostDto createPost(PostRequestDto dto, User user) {
         Post newPost = Post.fromDto(dto, user);
+        // the uuid is client-chosen, and save() would merge over an existing post
+        if (postRepository.existsById(newPost.getUuid())) {
+            throw new PostAlreadyExistsException("Post already exists with UUID: " + newPost.getUuid());
+        }
+        newPost.setChangeVersion(nextPostsVersion(user));
 
         if ("IMAGE".equalsIgnoreCase(dto.getMediaType()) || "VIDEO".equalsIgnoreCase(dto.getMediaType())) {
             if (dto.getMediaUris() != null && !dto.getMediaUris().isEmpty()) {
-                log.info("Media type is IMAGE or VIDEO. Proceeding to move files.");
-                storageService.movePendingFilesToPermanentLocation(newPost, dto.getMediaUris());
+                log.info("Media type is IMAGE or VIDEO. Queueing files to be processed.");
+                enqueueNewMedia(user, newPost.getUuid(), dto.getMediaUris(), dto.isDirectUpload());
             }
         }
 
-        Post savedPost = postRepository.save(newPost);
+        Post savedPost;
+        try {
+            savedPost = postRepository.saveAndFlush(newPost);
+        } catch (DataIntegrityViolationException e) {
+            throw new PostAlreadyExistsException("Post already exists with UUID: " + newPost.getUuid());
+        }
+        publishChange(user, "CREATED", savedPost.getUuid(), savedPost.getChangeVersion());
         log.info("Created new post with UUID: {} for user: {}", savedPost.getUuid(), user.getUsername());
         return convertToDto(savedPost);
     }
@@ -56,7 +200,7 @@ public class PostService {
             if (!"IMAGE".equalsIgnoreCase(dto.getMediaType()) && !"VIDEO".equalsIgnoreCase(dto.getMediaType())) {
                 if (!oldMediaUris.isEmpty()) {
                     log.info("Media type changed from {} to {}. Deleting all old media files.", oldMediaType, dto.getMediaType());
-                    storageService.deleteMediaObjects(post, oldMediaUris);
+                    storageOutboxService.enqueue(StorageOutboxEntry.Operation.DELETE_MEDIA, post.getUuid(), oldMediaUris);
                 }
             } else {
                 Set<String> newFiles = new HashSet<>(dto.getMediaUris());
@@ -66,7 +210,7 @@ public class PostService {
 
                 if (!filesToRemove.isEmpty()) {
                     log.info("Deleting {} removed media files.", filesToRemove.size());
-                    storageService.deleteMediaObjects(post, filesToRemove);
+                    storageOutboxService.enqueue(StorageOutboxEntry.Operation.DELETE_MEDIA, post.getUuid(), filesToRemove);
                 }
             }
         }
@@ -78,8 +222,8 @@ public class PostService {
                     .toList();
 
             if (!filesToAdd.isEmpty()) {
-                log.info("Moving {} new media files to permanent storage.", filesToAdd.size());
-                storageService.movePendingFilesToPermanentLocation(post, filesToAdd);
+                log.info("Queueing {} new media files to be processed.", filesToAdd.size());
+                enqueueNewMedia(user, post.getUuid(), filesToAdd, dto.isDirectUpload());
             }
         }
 
@@ -87,40 +231,88 @@ public class PostService {
         post.setContent(dto.getContent());
         post.setPublishDate(LocalDate.parse(dto.getPublishDate()));
         post.setStatus(dto.getStatus());
-        post.setPlatforms(dto.getPlatforms());
+        post.setPlatforms(Platform.normalize(dto.getPlatforms()));
         post.setMediaType(dto.getMediaType());
         post.setMediaUris(dto.getMediaUris());
+        post.setChangeVersion(nextPostsVersion(user));
 
         Post updatedPost = postRepository.save(post);
+        publishChange(user, "UPDATED", updatedPost.getUuid(), updatedPost.getChangeVersion());
         log.info("Updated post with UUID: {}", updatedPost.getUuid());
         return convertToDto(updatedPost);
     }
 
+    private void enqueueNewMedia(User user, UUID postUuid, List<String> filenames, boolean directUpload) {
+        filenames.forEach(StorageService::requireValidFilename);
+        List<String> pendingFiles = filenames;
+        if (directUpload) {
+            // only files this user reserved under this post were uploaded in place; the rest still sit in pending
+            Set<String> reserved = new HashSet<>(mediaUploadRepository.findReservedFilenames(user.getId(), postUuid, filenames));
+            pendingFiles = filenames.stream().filter(f -> !reserved.contains(f)).toList();
+        }
+        if (!pendingFiles.isEmpty()) {
+            storageOutboxService.enqueue(StorageOutboxEntry.Operation.COMMIT_MEDIA, postUuid, pendingFiles);
+        }
+        storageOutboxService.enqueue(StorageOutboxEntry.Operation.GENERATE_VARIANTS, postUuid, filenames);
+    }
+
     @Transactional
     public void deletePost(UUID uuid, User user) {
         Post post = postRepository.findByUuidAndUser(uuid, user)
                 .orElseThrow(() -> new NoSuchElementException("Post not found with UUID: " + uuid));
 
         if ("IMAGE".equalsIgnoreCase(post.getMediaType()) || "VIDEO".equalsIgnoreCase(post.getMediaType())) {
-            storageService.deleteMediaForPost(post);
+            storageOutboxService.enqueue(StorageOutboxEntry.Operation.DELETE_MEDIA, uuid, post.getMediaUris());
         }
 
+        PostTombstone tombstone = postTombstoneRepository.save(PostTombstone.builder()
+                .uuid(uuid)
+                .userId(user.getId())
+                .changeVersion(nextPostsVersion(user))
+                .deletedAt(LocalDateTime.now())
+                .build());
         postRepository.delete(post);
+        publishChange(user, "DELETED", uuid, tombstone.getChangeVersion());
         log.info("Deleted post with UUID: {}", uuid);
     }
 
-    private PostDto convertToDto(Post post) {
+    private void publishChange(User user, String type, UUID uuid, long version) {
+        eventPublisher.publishEvent(new PostChangedEvent(user.getId(), PostEventDto.builder()
+                .type(type)
+                .uuid(uuid.toString())
+                .version(version)
+                .build()));
+    }
+
+    private long nextPostsVersion(User user) {
+        userRepository.incrementPostsVersion(user.getId());
+        return userRepository.findPostsVersionById(user.getId());
+    }
+
+    @Transactional(readOnly = true)
+    public void requireOwnedPosts(User user, Set<UUID> uuids) {
+        if (uuids.isEmpty()) {
+            return;
+        }
+        Set<UUID> missing = new HashSet<>(uuids);
+        postRepository.findUuidsByUserAndUuidIn(user, uuids).forEach(missing::remove);
+        if (!missing.isEmpty()) {
+            throw new NoSuchElementException("Post not found with UUID: " + missing.iterator().next());
+        }
+    }
+
+    static PostDto convertToDto(Post post) {
         PostDto dto = new PostDto();
         dto.setUuid(post.getUuid().toString());
         dto.setTitle(post.getTitle());
         dto.setContent(post.getContent());
         dto.setPublishDate(post.getPublishDate().toString());
         dto.setStatus(post.getStatus());
-        dto.setPlatforms(post.getPlatforms());
+        dto.setPlatforms(post.getPlatforms() != null ? new ArrayList<>(post.getPlatforms()) : null);
         dto.setMediaType(post.getMediaType());
         dto.setCreatedAt(post.getCreatedAt());
         dto.setUpdatedAt(post.getUpdatedAt());
-        dto.setMediaUris(post.getMediaUris());
+        dto.setMediaUris(post.getMediaUris() != null ? new ArrayList<>(post.getMediaUris()) : null);
         return dto;
     }
 }
\ No newline at end of file
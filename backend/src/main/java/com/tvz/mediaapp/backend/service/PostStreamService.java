@@ -0,0 +1,78 @@
+package com.tvz.mediaapp.backend.service;
+
+import com.tvz.mediaapp.backend.model.User;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+@Slf4j
+public class PostStreamService {
+
+    private static final String POST_EVENT_NAME = "post-change";
+
+    private final Map<Long, Set<SseEmitter>> emittersByUser = new ConcurrentHashMap<>();
+
+    @Value("${posts.stream.timeout-ms}")
+    private long streamTimeout;
+
+    public SseEmitter subscribe(User user) {
+        Long userId = user.getId();
+        SseEmitter emitter = new SseEmitter(streamTimeout);
+
+        emittersByUser.computeIfAbsent(userId, id -> ConcurrentHashMap.newKeySet()).add(emitter);
+        emitter.onCompletion(() -> removeEmitter(userId, emitter));
+        emitter.onTimeout(() -> removeEmitter(userId, emitter));
+        emitter.onError(e -> removeEmitter(userId, emitter));
+
+        log.debug("Opened post stream for user {} ({} active connections)", user.getUsername(), getConnectionCount());
+        return emitter;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onPostChanged(PostChangedEvent event) {
+        Set<SseEmitter> emitters = emittersByUser.get(event.userId());
+        if (emitters == null) return;
+
+        for (SseEmitter emitter : emitters) {
+            send(event.userId(), emitter, SseEmitter.event().name(POST_EVENT_NAME).data(event.payload()));
+        }
+    }
+
+    public void sendHeartbeats() {
+        emittersByUser.forEach((userId, emitters) -> {
+            for (SseEmitter emitter : emitters) {
+                send(userId, emitter, SseEmitter.event().comment("heartbeat"));
+            }
+        });
+    }
+
+    public int getConnectionCount() {
+        return emittersByUser.values().stream().mapToInt(Set::size).sum();
+    }
+
+    private void send(Long userId, SseEmitter emitter, SseEmitter.SseEventBuilder event) {
+        try {
+            emitter.send(event);
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Dropping post stream for user {}: {}", userId, e.getMessage());
+            removeEmitter(userId, emitter);
+            emitter.completeWithError(e);
+        }
+    }
+
+    private void removeEmitter(Long userId, SseEmitter emitter) {
+        emittersByUser.computeIfPresent(userId, (id, emitters) -> {
+            emitters.remove(emitter);
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+}
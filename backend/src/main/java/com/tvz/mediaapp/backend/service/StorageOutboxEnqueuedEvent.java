@@ -0,0 +1,4 @@
+package com.tvz.mediaapp.backend.service;
+
+public record StorageOutboxEnqueuedEvent(Long entryId) {
+}
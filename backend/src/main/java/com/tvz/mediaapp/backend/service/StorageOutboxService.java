@@ -0,0 +1,216 @@
+package com.tvz.mediaapp.backend.service;
+
+import com.tvz.mediaapp.backend.model.StorageOutboxEntry;
+import com.tvz.mediaapp.backend.repository.StorageOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs storage side effects of committed post writes. Entries are dispatched by one thread and are not claimed in
+ * the database, so only one backend instance may dispatch against a given database.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StorageOutboxService {
+
+    private final StorageOutboxRepository storageOutboxRepository;
+    private final StorageService storageService;
+    private final MediaVariantService mediaVariantService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${storage.outbox.batch-size}")
+    private int batchSize;
+
+    @Value("${storage.outbox.max-attempts}")
+    private int maxAttempts;
+
+    @Value("${storage.outbox.backoff-initial-ms}")
+    private long backoffInitialMs;
+
+    @Value("${storage.outbox.backoff-max-ms}")
+    private long backoffMaxMs;
+
+    private final ExecutorService dispatcher = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "storage-outbox-dispatcher");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean dispatchRequested = new AtomicBoolean();
+    private final AtomicLong pendingCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+    private final AtomicReference<LocalDateTime> oldestPendingAt = new AtomicReference<>();
+    private Counter dispatchedSucceeded;
+    private Counter dispatchedRetried;
+    private Counter dispatchedFailed;
+
+    @PostConstruct
+    public void init() {
+        Gauge.builder("storage.outbox.backlog", pendingCount, AtomicLong::get)
+                .description("Storage operations waiting to be dispatched")
+                .register(meterRegistry);
+        Gauge.builder("storage.outbox.failed", failedCount, AtomicLong::get)
+                .description("Storage operations that ran out of attempts")
+                .register(meterRegistry);
+        Gauge.builder("storage.outbox.oldest.age", this, StorageOutboxService::oldestPendingAgeSeconds)
+                .description("Age in seconds of the oldest pending storage operation")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        dispatchedSucceeded = meterRegistry.counter("storage.outbox.dispatched", "outcome", "success");
+        dispatchedRetried = meterRegistry.counter("storage.outbox.dispatched", "outcome", "retry");
+        dispatchedFailed = meterRegistry.counter("storage.outbox.dispatched", "outcome", "failed");
+        refreshBacklog();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        dispatcher.shutdown();
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(StorageOutboxEntry.Operation operation, UUID postUuid, List<String> filenames) {
+        if (filenames == null || filenames.isEmpty()) return;
+
+        StorageOutboxEntry entry = storageOutboxRepository.save(StorageOutboxEntry.builder()
+                .postUuid(postUuid)
+                .operation(operation)
+                .filenames(new ArrayList<>(filenames))
+                .status(StorageOutboxEntry.Status.PENDING)
+                .nextAttemptAt(LocalDateTime.now())
+                .build());
+        eventPublisher.publishEvent(new StorageOutboxEnqueuedEvent(entry.getId()));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onEnqueued(StorageOutboxEnqueuedEvent event) {
+        requestDispatch();
+    }
+
+    public void requestDispatch() {
+        if (dispatchRequested.compareAndSet(false, true)) {
+            dispatcher.execute(this::dispatch);
+        }
+    }
+
+    public void dispatch() {
+        dispatchRequested.set(false);
+        try {
+            // Operations on one post must apply in order, so only the oldest pending entry of each post is picked up.
+            List<StorageOutboxEntry> entries = storageOutboxRepository.findDueHeadsOfPostQueues(
+                    StorageOutboxEntry.Status.PENDING, LocalDateTime.now(), Limit.of(batchSize));
+            int succeeded = 0;
+            for (StorageOutboxEntry entry : entries) {
+                if (execute(entry)) {
+                    succeeded++;
+                }
+            }
+
+            // completed entries may have unblocked the next operation on their post
+            if (succeeded > 0) {
+                requestDispatch();
+            }
+        } catch (RuntimeException e) {
+            log.error("Storage outbox dispatch failed", e);
+        } finally {
+            refreshBacklog();
+        }
+    }
+
+    private boolean execute(StorageOutboxEntry entry) {
+        List<String> retryFilenames;
+        String error;
+        try {
+            switch (entry.getOperation()) {
+                case COMMIT_MEDIA -> {
+                    MediaCommitResult result = storageService.movePendingFilesToPermanentLocation(entry.getPostUuid(), entry.getFilenames());
+                    if (!result.missing().isEmpty()) {
+                        log.warn("Media files {} of post {} were never uploaded", result.missing(), entry.getPostUuid());
+                    }
+                    retryFilenames = new ArrayList<>(result.failed().keySet());
+                    error = result.failed().toString();
+                }
+                case GENERATE_VARIANTS -> {
+                    Map<String, String> failedFiles = mediaVariantService.generateVariants(entry.getPostUuid(), entry.getFilenames());
+                    retryFilenames = new ArrayList<>(failedFiles.keySet());
+                    error = failedFiles.toString();
+                }
+                case DELETE_MEDIA -> {
+                    mediaVariantService.deleteVariants(entry.getPostUuid(), entry.getFilenames());
+                    Map<String, String> failedKeys = storageService.deleteMediaObjects(entry.getPostUuid(), entry.getFilenames());
+                    retryFilenames = failedKeys.isEmpty() ? List.of() : entry.getFilenames();
+                    error = failedKeys.toString();
+                }
+                default -> throw new IllegalStateException("Unknown storage operation: " + entry.getOperation());
+            }
+        } catch (RuntimeException e) {
+            retryFilenames = entry.getFilenames();
+            error = e.toString();
+        }
+
+        if (retryFilenames.isEmpty()) {
+            storageOutboxRepository.delete(entry);
+            dispatchedSucceeded.increment();
+            return true;
+        }
+
+        entry.setAttempts(entry.getAttempts() + 1);
+        entry.setFilenames(retryFilenames);
+        entry.setLastError(error);
+        if (entry.getAttempts() >= maxAttempts) {
+            entry.setStatus(StorageOutboxEntry.Status.FAILED);
+            dispatchedFailed.increment();
+            log.error("Giving up on {} for post {} after {} attempts: {}", entry.getOperation(), entry.getPostUuid(), entry.getAttempts(), error);
+        } else {
+            entry.setNextAttemptAt(LocalDateTime.now().plus(Duration.ofMillis(backoffFor(entry.getAttempts()))));
+            dispatchedRetried.increment();
+            log.warn("Retrying {} for post {} at {} (attempt {} of {}): {}", entry.getOperation(), entry.getPostUuid(),
+                    entry.getNextAttemptAt(), entry.getAttempts() + 1, maxAttempts, error);
+        }
+        storageOutboxRepository.save(entry);
+        return false;
+    }
+
+    private long backoffFor(int attempts) {
+        long backoff = backoffInitialMs << Math.min(attempts - 1, 30);
+        return backoff > 0 ? Math.min(backoff, backoffMaxMs) : backoffMaxMs;
+    }
+
+    private void refreshBacklog() {
+        pendingCount.set(storageOutboxRepository.countByStatus(StorageOutboxEntry.Status.PENDING));
+        failedCount.set(storageOutboxRepository.countByStatus(StorageOutboxEntry.Status.FAILED));
+        oldestPendingAt.set(storageOutboxRepository.findFirstByStatusOrderByIdAsc(StorageOutboxEntry.Status.PENDING)
+                .map(StorageOutboxEntry::getCreatedAt)
+                .orElse(null));
+    }
+
+    private double oldestPendingAgeSeconds() {
+        LocalDateTime oldest = oldestPendingAt.get();
+        return oldest == null ? 0 : Duration.between(oldest, LocalDateTime.now()).toSeconds();
+    }
+}
@@ -1,185 +1,546 @@
 package com.tvz.mediaapp.backend.service;
 
-import com.tvz.mediaapp.backend.model.Post;
+import com.tvz.mediaapp.backend.metrics.RequestTags;
+import com.tvz.mediaapp.backend.model.MediaVariant;
+import com.tvz.mediaapp.backend.storage.ObjectStore;
+import com.tvz.mediaapp.dto.MultipartUploadDto;
+import com.tvz.mediaapp.dto.MultipartUploadPartDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
-import software.amazon.awssdk.services.s3.S3Client;
-import software.amazon.awssdk.services.s3.model.*;
-import software.amazon.awssdk.services.s3.presigner.S3Presigner;
-import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
-import software.amazon.awssdk.services.s3.presigner.model.PutObjectPresignRequest;
 
 import java.net.URL;
+import java.nio.file.Path;
 import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class StorageService {
-    private final S3Client s3Client;
-    private final S3Presigner s3Presigner;
-
-    @Value("${aws.s3.bucket-name}")
-    private String bucketName;
+    private final ObjectStore objectStore;
+    private final MeterRegistry meterRegistry;
 
     @Value("${aws.s3.presigned-url-expiration-minutes}")
     private long expirationMinutes;
 
+    @Value("${aws.s3.presigned-url-cache.max-size}")
+    private int presignedUrlCacheSize;
+
+    @Value("${aws.s3.bulk-download-max-files}")
+    private int bulkDownloadMaxFiles;
+
+    @Value("${aws.s3.multipart.part-size-bytes}")
+    private long multipartPartSize;
+
+    @Value("${aws.s3.multipart.max-parts}")
+    private int multipartMaxParts;
+
+    @Value("${aws.s3.max-in-flight-requests}")
+    private int maxInFlightRequests;
+
+    @Value("${aws.s3.delete-max-attempts}")
+    private int deleteMaxAttempts;
+
+    @Value("${aws.s3.delete-retry-backoff-ms}")
+    private long deleteRetryBackoffMs;
+
+    @Value("${aws.s3.cleanup.max-age-ms}")
+    private long cleanupMaxAgeMs;
+
+    @Value("${aws.s3.cleanup.page-size}")
+    private int cleanupPageSize;
+
+    @Value("${aws.s3.cleanup.time-budget-ms}")
+    private long cleanupTimeBudgetMs;
+
+    private Semaphore inFlightRequests;
+
+    private Map<String, CachedUrl> downloadUrls;
+    private Counter presignCacheHits;
+    private Counter presignCacheMisses;
+
+    private record CachedUrl(String url, long reuseUntil) {
+    }
+
+    private final AtomicReference<String> cleanupCheckpoint = new AtomicReference<>();
+    private final AtomicLong cleanupPassScanned = new AtomicLong();
+    private volatile long cleanupLastPassSize = -1;
+    private Counter cleanupScanned;
+    private Counter cleanupDeleted;
+    private Counter presignedGets;
+    private Counter presignedPuts;
+    private Counter presignedParts;
+
     private static final String PENDING_UPLOAD_PREFIX = "uploads/pending/";
     private static final String PERMANENT_MEDIA_PREFIX = "media/posts/";
+    private static final int MAX_KEYS_PER_DELETE = 1000;
+    private static final String MISSING_SOURCE = "Source file not found in pending location";
+
+    @PostConstruct
+    public void init() {
+        inFlightRequests = new Semaphore(maxInFlightRequests);
+        // access-ordered, so a full cache drops the URL handed out least recently instead of all of them
+        downloadUrls = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedUrl> eldest) {
+                return size() > presignedUrlCacheSize;
+            }
+        });
+        presignCacheHits = meterRegistry.counter("storage.presign.cache", "result", "hit");
+        presignCacheMisses = meterRegistry.counter("storage.presign.cache", "result", "miss");
+        cleanupScanned = meterRegistry.counter("storage.cleanup.scanned");
+        cleanupDeleted = meterRegistry.counter("storage.cleanup.deleted");
+        presignedGets = meterRegistry.counter("storage.presign.issued", "method", "get");
+        presignedPuts = meterRegistry.counter("storage.presign.issued", "method", "put");
+        presignedParts = meterRegistry.counter("storage.presign.issued", "method", "upload_part");
+        Gauge.builder("storage.cleanup.remaining", this, StorageService::estimateRemainingPendingUploads)
+                .description("Estimated pending uploads not yet scanned in the current sweep pass")
+                .register(meterRegistry);
+    }
+
+    public URL generatePreSignedUploadUrl(UUID postUuid, String uniqueFilename) {
+        presignedPuts.increment();
+        return objectStore.presignPut(uploadKey(postUuid, uniqueFilename), Duration.ofMinutes(expirationMinutes));
+    }
 
-    public URL generatePreSignedUploadUrl(String uniqueFilename) {
-        String objectKey = PENDING_UPLOAD_PREFIX + uniqueFilename;
+    public MultipartUploadDto createMultipartUpload(UUID postUuid, String uniqueFilename, String contentType, long fileSize) {
+        if (fileSize <= 0) {
+            throw new IllegalArgumentException("File size must be positive");
+        }
+        String objectKey = uploadKey(postUuid, uniqueFilename);
+        long partSize = Math.max(multipartPartSize, Math.ceilDiv(fileSize, multipartMaxParts));
+        int partCount = Math.toIntExact(Math.ceilDiv(fileSize, partSize));
+
+        String uploadId = timed("multipart_create", () -> objectStore.createMultipartUpload(objectKey, contentType));
+
+        presignedParts.increment(partCount);
+        List<MultipartUploadPartDto> parts = new ArrayList<>(partCount);
+        for (int partNumber = 1; partNumber <= partCount; partNumber++) {
+            parts.add(MultipartUploadPartDto.builder()
+                    .partNumber(partNumber)
+                    .url(objectStore.presignUploadPart(objectKey, uploadId, partNumber, Duration.ofMinutes(expirationMinutes)).toString())
+                    .build());
+        }
 
-        PutObjectPresignRequest presignRequest = PutObjectPresignRequest.builder()
-                .signatureDuration(Duration.ofMinutes(expirationMinutes))
-                .putObjectRequest(builder -> builder
-                        .bucket(bucketName)
-                        .key(objectKey))
+        log.info("Started multipart upload {} for {} ({} bytes in {} parts)", uploadId, objectKey, fileSize, partCount);
+        return MultipartUploadDto.builder()
+                .uploadId(uploadId)
+                .filename(uniqueFilename)
+                .postUuid(postUuid != null ? postUuid.toString() : null)
+                .partSize(partSize)
+                .parts(parts)
                 .build();
+    }
+
+    public void completeMultipartUpload(UUID postUuid, String uniqueFilename, String uploadId, List<MultipartUploadPartDto> parts) {
+        if (parts == null || parts.isEmpty()) {
+            throw new IllegalArgumentException("No parts to complete upload " + uploadId);
+        }
+        List<ObjectStore.UploadedPart> completedParts = parts.stream()
+                .sorted(Comparator.comparingInt(MultipartUploadPartDto::getPartNumber))
+                .map(part -> new ObjectStore.UploadedPart(part.getPartNumber(), part.getEtag()))
+                .toList();
 
-        return s3Presigner.presignPutObject(presignRequest).url();
+        timed("multipart_complete", () -> objectStore.completeMultipartUpload(uploadKey(postUuid, uniqueFilename), uploadId, completedParts));
+        log.info("Completed multipart upload {} for {} with {} parts", uploadId, uniqueFilename, completedParts.size());
+    }
+
+    public void abortMultipartUpload(UUID postUuid, String uniqueFilename, String uploadId) {
+        timed("multipart_abort", () -> objectStore.abortMultipartUpload(uploadKey(postUuid, uniqueFilename), uploadId));
+        log.info("Aborted multipart upload {} for {}", uploadId, uniqueFilename);
     }
 
     public Map<String, String> generatePreSignedDownloadUrls(String postUuid, List<String> filenames) {
         Map<String, String> urls = new HashMap<>();
+        UUID uuid = UUID.fromString(postUuid);
 
         for (String filename : filenames) {
-            String objectKey = PERMANENT_MEDIA_PREFIX + postUuid + "/" + filename;
             try {
-                GetObjectPresignRequest presignRequest = GetObjectPresignRequest.builder()
-                        .signatureDuration(Duration.ofMinutes(expirationMinutes))
-                        .getObjectRequest(builder -> builder
-                                .bucket(bucketName)
-                                .key(objectKey))
-                        .build();
-
-                urls.put(filename, s3Presigner.presignGetObject(presignRequest).url().toString());
+                urls.put(filename, presignedDownloadUrl(permanentKey(uuid, filename)));
             } catch (Exception e) {
-                log.error("Could not generate download URL for {}", objectKey, e);
+                log.error("Could not generate download URL for {} of post {}", filename, postUuid, e);
                 urls.put(filename, "");
             }
         }
         return urls;
     }
 
-    public void movePendingFilesToPermanentLocation(Post post, List<String> filenames) {
-        log.info("Moving {} files from pending to permanent location for post {}", filenames.size(), post.getUuid());
+    public Map<String, Map<String, String>> generatePreSignedDownloadUrls(Map<UUID, Map<String, String>> objectsByPost) {
+        Map<String, Map<String, String>> urlsByPost = new HashMap<>();
+        objectsByPost.forEach((postUuid, objects) -> {
+            Map<String, String> urls = new HashMap<>();
+            objects.forEach((filename, objectName) -> {
+                String objectKey = permanentKey(postUuid, objectName);
+                try {
+                    urls.put(filename, presignedDownloadUrl(objectKey));
+                } catch (Exception e) {
+                    log.error("Could not generate download URL for {}", objectKey, e);
+                    urls.put(filename, "");
+                }
+            });
+            urlsByPost.put(postUuid.toString(), urls);
+        });
+        return urlsByPost;
+    }
 
-        for (String filename : filenames) {
-            String sourceKey = PENDING_UPLOAD_PREFIX + filename;
-            String destinationKey = PERMANENT_MEDIA_PREFIX + post.getUuid().toString() + "/" + filename;
+    public void checkBulkDownloadSize(Map<UUID, List<String>> filesByPost) {
+        int fileCount = filesByPost.values().stream().mapToInt(List::size).sum();
+        if (fileCount > bulkDownloadMaxFiles) {
+            throw new IllegalArgumentException("Too many files requested: " + fileCount + " (max " + bulkDownloadMaxFiles + ")");
+        }
+    }
 
-            log.debug("Attempting to move file: {} -> {}", sourceKey, destinationKey);
+    public String generatePreSignedDownloadUrl(UUID postUuid, String filename) {
+        return presignedDownloadUrl(permanentKey(postUuid, filename));
+    }
 
-            try {
-                s3Client.copyObject(builder -> builder
-                        .sourceBucket(bucketName)
-                        .sourceKey(sourceKey)
-                        .destinationBucket(bucketName)
-                        .destinationKey(destinationKey));
+    public Optional<Resource> openMediaObject(UUID postUuid, String filename) {
+        return objectStore.openResource(permanentKey(postUuid, filename));
+    }
+
+    private String presignedDownloadUrl(String objectKey) {
+        long now = System.currentTimeMillis();
+        CachedUrl cached = downloadUrls.get(objectKey);
+        if (cached != null) {
+            if (cached.reuseUntil() > now) {
+                presignCacheHits.increment();
+                return cached.url();
+            }
+            downloadUrls.remove(objectKey, cached);
+        }
+        presignCacheMisses.increment();
+        presignedGets.increment();
 
-                s3Client.deleteObject(builder -> builder
-                        .bucket(bucketName)
-                        .key(sourceKey));
+        Duration expiration = Duration.ofMinutes(expirationMinutes);
+        String url = objectStore.presignGet(objectKey, expiration).toString();
 
-                log.info("Successfully moved file {} to permanent location", filename);
+        // hand out the same URL only while more than half of its validity is left
+        downloadUrls.put(objectKey, new CachedUrl(url, now + expiration.toMillis() / 2));
+        return url;
+    }
 
-            } catch (NoSuchKeyException e) {
-                log.error("Source file not found in pending location: {}. Upload may have failed.", sourceKey);
-            }
+    public MediaCommitResult movePendingFilesToPermanentLocation(UUID postUuid, List<String> filenames) {
+        log.info("Moving {} files from pending to permanent location for post {}", filenames.size(), postUuid);
+
+        Queue<String> copiedSourceKeys = new ConcurrentLinkedQueue<>();
+        Map<String, CompletableFuture<String>> fileCopies = new LinkedHashMap<>();
+        List<CompletableFuture<?>> allCopies = new ArrayList<>();
+
+        for (String filename : filenames) {
+            String sourceKey = pendingKey(filename);
+            CompletableFuture<String> fileCopy = moveObject(sourceKey, permanentKey(postUuid, filename))
+                    .handle((response, e) -> {
+                        if (e == null) {
+                            copiedSourceKeys.add(sourceKey);
+                            return null;
+                        }
+                        if (e.getCause() instanceof NoSuchElementException) {
+                            log.error("Source file not found in pending location: {}. Upload may have failed.", sourceKey);
+                            return MISSING_SOURCE;
+                        }
+                        log.error("Failed to move {} to permanent location", sourceKey, e.getCause());
+                        return e.getCause().getMessage();
+                    });
+            fileCopies.put(filename, fileCopy);
+            allCopies.add(fileCopy);
 
             String thumbnailFilename = getThumbnailFilename(filename);
-            String sourceThumbnailKey = PENDING_UPLOAD_PREFIX + thumbnailFilename;
-            String destThumbnailKey = PERMANENT_MEDIA_PREFIX + post.getUuid().toString() + "/" + thumbnailFilename;
+            String sourceThumbnailKey = pendingKey(thumbnailFilename);
+            allCopies.add(moveObject(sourceThumbnailKey, permanentKey(postUuid, thumbnailFilename))
+                    .handle((response, e) -> {
+                        if (e == null) {
+                            copiedSourceKeys.add(sourceThumbnailKey);
+                        } else if (e.getCause() instanceof NoSuchElementException) {
+                            log.debug("Thumbnail not found in pending location: {}", sourceThumbnailKey);
+                        } else {
+                            log.warn("Failed to move thumbnail {} to permanent location", sourceThumbnailKey, e.getCause());
+                        }
+                        return null;
+                    }));
+        }
+
+        CompletableFuture.allOf(allCopies.toArray(CompletableFuture[]::new)).join();
+
+        List<String> committed = new ArrayList<>();
+        List<String> missing = new ArrayList<>();
+        Map<String, String> failed = new LinkedHashMap<>();
+        fileCopies.forEach((filename, copy) -> {
+            String error = copy.join();
+            if (error == null) {
+                committed.add(filename);
+            } else if (MISSING_SOURCE.equals(error)) {
+                missing.add(filename);
+            } else {
+                failed.put(filename, error);
+            }
+        });
+
+        deleteObjects(List.copyOf(copiedSourceKeys));
+
+        log.info("Moved {} of {} files to permanent location for post {}", committed.size(), filenames.size(), postUuid);
+        return new MediaCommitResult(committed, missing, failed);
+    }
 
+    private CompletableFuture<Void> moveObject(String sourceKey, String destinationKey) {
+        log.debug("Attempting to move object: {} -> {}", sourceKey, destinationKey);
+        inFlightRequests.acquireUninterruptibly();
+        return timedAsync("move", () -> objectStore.move(sourceKey, destinationKey))
+                .whenComplete((response, e) -> inFlightRequests.release());
+    }
+
+    private Map<String, String> deleteObjects(List<String> keys) {
+        Map<String, String> failed = Map.of();
+        List<String> remaining = keys;
+        for (int attempt = 1; !remaining.isEmpty(); attempt++) {
+            failed = deleteObjectsOnce(remaining);
+            if (failed.isEmpty() || attempt == deleteMaxAttempts) {
+                break;
+            }
+            log.warn("Retrying deletion of {} storage objects (attempt {} of {})", failed.size(), attempt + 1, deleteMaxAttempts);
             try {
-                s3Client.copyObject(builder -> builder
-                        .sourceBucket(bucketName)
-                        .sourceKey(sourceThumbnailKey)
-                        .destinationBucket(bucketName)
-                        .destinationKey(destThumbnailKey));
-
-                s3Client.deleteObject(builder -> builder
-                        .bucket(bucketName)
-                        .key(sourceThumbnailKey));
-
-                log.debug("Successfully moved thumbnail {} to permanent location", thumbnailFilename);
-            } catch (NoSuchKeyException e) {
-                log.debug("Thumbnail not found in pending location: {}", sourceThumbnailKey);
+                Thread.sleep(deleteRetryBackoffMs * attempt);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
             }
+            remaining = new ArrayList<>(failed.keySet());
         }
 
-        log.info("Completed moving all files to permanent location for post {}", post.getUuid());
+        failed.forEach((key, reason) -> log.error("Failed to delete storage object: {} ({})", key, reason));
+        return failed;
     }
 
-    private String getThumbnailFilename(String originalFilename) {
-        int lastDotIndex = originalFilename.lastIndexOf('.');
-        if (lastDotIndex > 0) {
-            String nameWithoutExt = originalFilename.substring(0, lastDotIndex);
-            return nameWithoutExt + "_thumb.jpg";
-        } else {
-            return originalFilename + "_thumb.jpg";
+    private Map<String, String> deleteObjectsOnce(List<String> keys) {
+        List<List<String>> batches = new ArrayList<>();
+        List<CompletableFuture<Map<String, String>>> responses = new ArrayList<>();
+        for (int from = 0; from < keys.size(); from += MAX_KEYS_PER_DELETE) {
+            List<String> batch = keys.subList(from, Math.min(from + MAX_KEYS_PER_DELETE, keys.size()));
+            inFlightRequests.acquireUninterruptibly();
+            batches.add(batch);
+            responses.add(timedAsync("delete", () -> objectStore.delete(batch))
+                    .whenComplete((response, e) -> inFlightRequests.release()));
         }
+
+        Map<String, String> failed = new LinkedHashMap<>();
+        for (int i = 0; i < batches.size(); i++) {
+            try {
+                failed.putAll(responses.get(i).join());
+            } catch (CompletionException e) {
+                String reason = e.getCause().getMessage();
+                batches.get(i).forEach(key -> failed.put(key, reason));
+            }
+        }
+        log.debug("Deleted {} of {} storage objects in {} requests", keys.size() - failed.size(), keys.size(), batches.size());
+        return failed;
     }
 
-    public void deleteMediaObjects(Post post, List<String> filenamesToDelete) {
-        for (String filename : filenamesToDelete) {
-            String objectKey = PERMANENT_MEDIA_PREFIX + post.getUuid().toString() + "/" + filename;
-            deleteObject(objectKey);
+    /** Client-supplied filenames become the last segment of an object key and must not reach into other prefixes. */
+    public static String requireValidFilename(String filename) {
+        if (filename == null || filename.isBlank() || filename.equals(".") || filename.equals("..")
+                || filename.contains("/") || filename.contains("\\")) {
+            throw new IllegalArgumentException("Invalid media filename: " + filename);
+        }
+        return filename;
+    }
 
-            String thumbnailFilename = getThumbnailFilename(filename);
-            String thumbnailKey = PERMANENT_MEDIA_PREFIX + post.getUuid().toString() + "/" + thumbnailFilename;
-            deleteObject(thumbnailKey);
+    private String permanentKey(UUID postUuid, String filename) {
+        return permanentPrefix(postUuid) + requireValidFilename(filename);
+    }
+
+    private String permanentPrefix(UUID postUuid) {
+        return PERMANENT_MEDIA_PREFIX + postUuid + "/";
+    }
+
+    private String pendingKey(String filename) {
+        return PENDING_UPLOAD_PREFIX + requireValidFilename(filename);
+    }
+
+    private String uploadKey(UUID postUuid, String filename) {
+        return postUuid != null ? permanentKey(postUuid, filename) : pendingKey(filename);
+    }
+
+    private static String getThumbnailFilename(String originalFilename) {
+        return MediaVariant.Kind.THUMBNAIL.filenameFor(originalFilename);
+    }
+
+    public void downloadMediaObject(UUID postUuid, String filename, Path target) {
+        timed("get", () -> objectStore.get(permanentKey(postUuid, filename), target));
+    }
+
+    public void uploadMediaObject(UUID postUuid, String filename, byte[] content, String contentType) {
+        String objectKey = permanentKey(postUuid, filename);
+        timed("put", () -> objectStore.put(objectKey, content, contentType));
+        downloadUrls.remove(objectKey);
+    }
+
+    public Map<String, String> deleteMediaObjects(UUID postUuid, List<String> filenamesToDelete) {
+        List<String> keys = new ArrayList<>();
+        for (String filename : filenamesToDelete) {
+            keys.add(permanentKey(postUuid, filename));
+            for (MediaVariant.Kind kind : MediaVariant.Kind.values()) {
+                keys.add(permanentKey(postUuid, kind.filenameFor(filename)));
+            }
         }
+        keys.forEach(downloadUrls::remove);
+        return deleteObjects(keys);
     }
 
-    public void deleteMediaForPost(Post post) {
-        if (post.getMediaUris() == null || post.getMediaUris().isEmpty()) return;
+    public Set<String> deleteUploadedObjects(UUID postUuid, List<String> filenames) {
+        String prefix = permanentPrefix(postUuid);
+        List<String> keys = filenames.stream().map(filename -> permanentKey(postUuid, filename)).toList();
+        filenames.forEach(filename -> downloadUrls.remove(prefix + filename));
+        Set<String> failed = new HashSet<>();
+        deleteObjects(keys).keySet().forEach(key -> failed.add(key.substring(prefix.length())));
+        return failed;
+    }
+
+    public PendingUploadSweepResult cleanupPendingUploads() {
+        Timer.Sample sweep = Timer.start(meterRegistry);
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(cleanupTimeBudgetMs);
+        Instant cutoff = Instant.now().minusMillis(cleanupMaxAgeMs);
+        String startAfter = cleanupCheckpoint.get();
+        String lastKey = startAfter;
+        long scanned = 0;
+        long deleted = 0;
+        boolean completed = true;
+
+        log.info("Sweeping pending uploads older than {} starting after {}", cutoff, startAfter != null ? startAfter : "the beginning");
+        try {
+            while (true) {
+                String after = lastKey;
+                ObjectStore.ObjectListing page = timed("list", () -> objectStore.list(PENDING_UPLOAD_PREFIX, after, cleanupPageSize));
+                List<String> expiredKeys = page.objects().stream()
+                        .filter(object -> object.lastModified().isBefore(cutoff))
+                        .map(ObjectStore.StoredObject::key)
+                        .toList();
+                long pageDeleted = expiredKeys.isEmpty() ? 0 : expiredKeys.size() - deleteObjects(expiredKeys).size();
+
+                scanned += page.objects().size();
+                deleted += pageDeleted;
+                cleanupScanned.increment(page.objects().size());
+                cleanupDeleted.increment(pageDeleted);
+                cleanupPassScanned.addAndGet(page.objects().size());
+                if (!page.objects().isEmpty()) {
+                    lastKey = page.objects().getLast().key();
+                }
+
+                if (!page.truncated()) {
+                    break;
+                }
+                if (System.nanoTime() > deadline) {
+                    completed = false;
+                    break;
+                }
+            }
+        } catch (RuntimeException e) {
+            cleanupCheckpoint.set(lastKey);
+            sweep.stop(meterRegistry.timer("storage.cleanup.sweep", "outcome", "error"));
+            throw e;
+        }
+        sweep.stop(meterRegistry.timer("storage.cleanup.sweep", "outcome", completed ? "completed" : "budget_exhausted"));
 
-        for (String mediaUri : post.getMediaUris()) {
-            String objectKey = PERMANENT_MEDIA_PREFIX + post.getUuid().toString() + "/" + mediaUri;
-            deleteObject(objectKey);
+        if (completed) {
+            cleanupCheckpoint.set(null);
+            cleanupLastPassSize = cleanupPassScanned.getAndSet(0);
+        } else {
+            cleanupCheckpoint.set(lastKey);
+            log.info("Pending upload sweep ran out of its {} ms budget, will resume after {}", cleanupTimeBudgetMs, lastKey);
+        }
+        return new PendingUploadSweepResult(scanned, deleted, completed);
+    }
 
-            String thumbnailFilename = getThumbnailFilename(mediaUri);
-            String thumbnailKey = PERMANENT_MEDIA_PREFIX + post.getUuid().toString() + "/" + thumbnailFilename;
-            deleteObject(thumbnailKey);
+    public int abortStaleMultipartUploads() {
+        Instant cutoff = Instant.now().minusMillis(cleanupMaxAgeMs);
+        int aborted = 0;
+        for (ObjectStore.PendingMultipartUpload upload : timed("multipart_list", () -> objectStore.listMultipartUploads(PENDING_UPLOAD_PREFIX))) {
+            if (upload.initiated().isBefore(cutoff)) {
+                try {
+                    timed("multipart_abort", () -> objectStore.abortMultipartUpload(upload.key(), upload.uploadId()));
+                    aborted++;
+                } catch (RuntimeException e) {
+                    log.warn("Could not abort stale multipart upload {} for {}", upload.uploadId(), upload.key(), e);
+                }
+            }
         }
+        return aborted;
     }
 
-    private void deleteObject(String key) {
+    private <T> T timed(String operation, Supplier<T> request) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Tag endpoint = RequestTags.endpoint();
+        Throwable error = null;
         try {
-            s3Client.deleteObject(builder -> builder
-                    .bucket(bucketName)
-                    .key(key));
-            log.debug("Successfully deleted object: {}", key);
-        } catch (Exception e) {
-            log.error("Failed to delete S3 object: {}", key, e);
+            return request.get();
+        } catch (RuntimeException e) {
+            error = e;
+            throw e;
+        } finally {
+            sample.stop(requestTimer(operation, endpoint, error));
         }
     }
 
-    public void cleanupPendingUploads() {
+    private void timed(String operation, Runnable request) {
+        timed(operation, () -> {
+            request.run();
+            return null;
+        });
+    }
+
+    private <T> CompletableFuture<T> timedAsync(String operation, Supplier<CompletableFuture<T>> request) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        // captured here, the future completes on an SDK thread without the request bound
+        Tag endpoint = RequestTags.endpoint();
+        CompletableFuture<T> response;
         try {
-            ListObjectsV2Request listRequest = ListObjectsV2Request.builder()
-                    .bucket(bucketName)
-                    .prefix(PENDING_UPLOAD_PREFIX)
-                    .build();
+            response = request.get();
+        } catch (RuntimeException e) {
+            // fail the future instead of throwing, so callers release their in-flight permit in whenComplete
+            sample.stop(requestTimer(operation, endpoint, e));
+            return CompletableFuture.failedFuture(e);
+        }
+        return response.whenComplete((result, e) -> sample.stop(requestTimer(operation, endpoint, e)));
+    }
 
-            ListObjectsV2Response listResponse = s3Client.listObjectsV2(listRequest);
+    private Timer requestTimer(String operation, Tag endpoint, Throwable error) {
+        return meterRegistry.timer("storage.requests",
+                Tags.of(Tag.of("operation", operation), endpoint, RequestTags.outcome(error)));
+    }
 
-            for (S3Object object : listResponse.contents()) {
-                if (object.lastModified().isBefore(java.time.Instant.now().minus(java.time.Duration.ofHours(24)))) {
-                    deleteObject(object.key());
-                    log.info("Cleaned up orphaned pending file: {}", object.key());
-                }
-            }
-        } catch (Exception e) {
-            log.error("Failed to cleanup pending uploads", e);
+    private double estimateRemainingPendingUploads() {
+        if (cleanupCheckpoint.get() == null) {
+            return 0;
         }
+        return cleanupLastPassSize < 0 ? Double.NaN : Math.max(0, cleanupLastPassSize - cleanupPassScanned.get());
     }
-}
\ No newline at end of file
+}
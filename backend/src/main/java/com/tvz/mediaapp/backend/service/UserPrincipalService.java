@@ -0,0 +1,94 @@
+package com.tvz.mediaapp.backend.service;
+
+import com.tvz.mediaapp.backend.model.Role;
+import com.tvz.mediaapp.backend.model.User;
+import com.tvz.mediaapp.backend.repository.UserRepository;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UserPrincipalService {
+
+    private final UserRepository userRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${jwt.principal-cache.max-size}")
+    private int maxCacheSize;
+
+    @Value("${jwt.principal-cache.ttl-ms}")
+    private long cacheTtl;
+
+    private final Map<String, CachedPrincipal> principals = new ConcurrentHashMap<>();
+    private Counter resolvedFromClaims;
+    private Counter resolvedFromCache;
+    private Counter resolvedFromDatabase;
+
+    private record CachedPrincipal(User user, long expiresAt) {
+    }
+
+    @PostConstruct
+    public void init() {
+        resolvedFromClaims = meterRegistry.counter("auth.principal.source", "source", "claims");
+        resolvedFromCache = meterRegistry.counter("auth.principal.source", "source", "cache");
+        resolvedFromDatabase = meterRegistry.counter("auth.principal.source", "source", "database");
+    }
+
+    public User resolve(Claims claims) {
+        String username = claims.getSubject();
+        Long userId = claims.get(JwtService.USER_ID_CLAIM, Long.class);
+        String email = claims.get(JwtService.EMAIL_CLAIM, String.class);
+        String role = claims.get(JwtService.ROLE_CLAIM, String.class);
+
+        if (userId != null && email != null && role != null) {
+            resolvedFromClaims.increment();
+            return User.builder()
+                    .id(userId)
+                    .username(username)
+                    .email(email)
+                    .role(Role.valueOf(role))
+                    .build();
+        }
+        return loadByUsername(username);
+    }
+
+    public void evict(String username) {
+        if (principals.remove(username) != null) {
+            log.debug("Evicted cached principal for user {}", username);
+        }
+    }
+
+    private User loadByUsername(String username) {
+        long now = System.currentTimeMillis();
+        CachedPrincipal cached = principals.get(username);
+        if (cached != null && cached.expiresAt() > now) {
+            resolvedFromCache.increment();
+            return cached.user();
+        }
+        resolvedFromDatabase.increment();
+
+        User user = userRepository.findByUsername(username)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with: " + username));
+        user.setPassword(null);
+
+        if (principals.size() >= maxCacheSize) {
+            principals.values().removeIf(p -> p.expiresAt() <= now);
+            if (principals.size() >= maxCacheSize) {
+                principals.clear();
+            }
+        }
+        principals.put(username, new CachedPrincipal(user, now + cacheTtl));
+        return user;
+    }
+}
@@ -0,0 +1,469 @@
+package com.tvz.mediaapp.backend.storage;
+
+import com.tvz.mediaapp.backend.exception.InvalidSignatureException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Stores objects as files under a root directory. Writes go to a temporary file next to the target
+ * and are renamed into place, so readers never see partial objects. Signed URLs point at
+ * {@link com.tvz.mediaapp.backend.controller.LocalStorageController}.
+ */
+@Component
+@ConditionalOnProperty(name = "storage.backend", havingValue = "local")
+@Slf4j
+public class LocalObjectStore implements ObjectStore {
+
+    private static final String MULTIPART_DIR = ".multipart";
+    private static final String TEMP_PREFIX = ".tmp-";
+    private static final String UPLOAD_KEY_FILE = "key";
+
+    private final Path root;
+    private final String baseUrl;
+    private final SecretKeySpec signingKey;
+    private final ExecutorService ioExecutor;
+
+    public LocalObjectStore(@Value("${storage.local.root}") Path root,
+                            @Value("${storage.local.base-url}") String baseUrl,
+                            @Value("${storage.local.signing-key}") String signingKey,
+                            @Value("${storage.local.io-threads}") int ioThreads,
+                            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.root = root.toAbsolutePath().normalize();
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.signingKey = new SecretKeySpec(signingKey.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+        if (virtualThreads) {
+            // concurrency is already capped by StorageService's in-flight limit
+            this.ioExecutor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("local-storage-io-", 1).factory());
+        } else {
+            AtomicInteger threadCount = new AtomicInteger();
+            this.ioExecutor = Executors.newFixedThreadPool(ioThreads, runnable -> {
+                Thread thread = new Thread(runnable, "local-storage-io-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        try {
+            Files.createDirectories(this.root.resolve(MULTIPART_DIR));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        log.info("Storing media on the local filesystem under {}", this.root);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ioExecutor.shutdown();
+    }
+
+    @Override
+    public URL presignPut(String key, Duration expiration) {
+        return signedUrl("PUT", key, null, null, expiration);
+    }
+
+    @Override
+    public URL presignGet(String key, Duration expiration) {
+        return signedUrl("GET", key, null, null, expiration);
+    }
+
+    @Override
+    public void put(String key, byte[] content, String contentType) {
+        Path target = resolve(key);
+        try {
+            Path temp = tempFileFor(target);
+            Files.write(temp, content);
+            replace(temp, target);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public Optional<Resource> openResource(String key) {
+        return Optional.of(new FileSystemResource(resolveExisting(key)));
+    }
+
+    @Override
+    public void get(String key, Path target) {
+        Path source = resolve(key);
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            transfer(in, out);
+        } catch (NoSuchFileException e) {
+            throw new NoSuchElementException("Object not found: " + key);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public CompletableFuture<Void> copy(String sourceKey, String destinationKey) {
+        return async(() -> {
+            copyFile(resolve(sourceKey), resolve(destinationKey), sourceKey);
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Void> move(String sourceKey, String destinationKey) {
+        return async(() -> {
+            Path source = resolve(sourceKey);
+            Path destination = resolve(destinationKey);
+            try {
+                Files.createDirectories(destination.getParent());
+                Files.move(source, destination, StandardCopyOption.ATOMIC_MOVE);
+            } catch (NoSuchFileException e) {
+                throw new NoSuchElementException("Object not found: " + sourceKey);
+            } catch (AtomicMoveNotSupportedException e) {
+                copyFile(source, destination, sourceKey);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public CompletableFuture<Map<String, String>> delete(List<String> keys) {
+        return async(() -> {
+            Map<String, String> failed = new LinkedHashMap<>();
+            for (String key : keys) {
+                try {
+                    Files.deleteIfExists(resolve(key));
+                } catch (IOException | RuntimeException e) {
+                    failed.put(key, e.toString());
+                }
+            }
+            return failed;
+        });
+    }
+
+    @Override
+    public ObjectListing list(String prefix, String startAfter, int maxKeys) {
+        int lastSlash = prefix.lastIndexOf('/');
+        Path directory = lastSlash >= 0 ? resolve(prefix.substring(0, lastSlash)) : root;
+        if (!Files.isDirectory(directory)) {
+            return new ObjectListing(List.of(), false);
+        }
+
+        try (Stream<Path> files = Files.walk(directory)) {
+            List<StoredObject> objects = files
+                    .filter(Files::isRegularFile)
+                    .filter(file -> !file.getFileName().toString().startsWith(TEMP_PREFIX))
+                    .map(file -> new StoredObject(keyOf(file), lastModified(file)))
+                    .filter(object -> object.key().startsWith(prefix) && !object.key().startsWith(MULTIPART_DIR + "/"))
+                    .filter(object -> startAfter == null || object.key().compareTo(startAfter) > 0)
+                    .sorted(Comparator.comparing(StoredObject::key))
+                    .limit(maxKeys + 1L)
+                    .toList();
+            boolean truncated = objects.size() > maxKeys;
+            return new ObjectListing(truncated ? objects.subList(0, maxKeys) : objects, truncated);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public String createMultipartUpload(String key, String contentType) {
+        resolve(key);
+        String uploadId = UUID.randomUUID().toString();
+        try {
+            Path uploadDir = Files.createDirectories(uploadDir(uploadId));
+            Files.writeString(uploadDir.resolve(UPLOAD_KEY_FILE), key);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return uploadId;
+    }
+
+    @Override
+    public URL presignUploadPart(String key, String uploadId, int partNumber, Duration expiration) {
+        return signedUrl("PUT", key, uploadId, partNumber, expiration);
+    }
+
+    @Override
+    public void completeMultipartUpload(String key, String uploadId, List<UploadedPart> parts) {
+        Path uploadDir = requireUpload(key, uploadId);
+        Path target = resolve(key);
+        List<UploadedPart> ordered = parts.stream().sorted(Comparator.comparingInt(UploadedPart::partNumber)).toList();
+        try {
+            for (UploadedPart part : ordered) {
+                Path etagFile = uploadDir.resolve(part.partNumber() + ".etag");
+                if (!Files.exists(etagFile) || !Files.readString(etagFile).equals(part.etag())) {
+                    throw new IllegalArgumentException("Part " + part.partNumber() + " of upload " + uploadId + " was not uploaded");
+                }
+            }
+
+            Path temp = tempFileFor(target);
+            try (FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                for (UploadedPart part : ordered) {
+                    try (FileChannel in = FileChannel.open(uploadDir.resolve(String.valueOf(part.partNumber())), StandardOpenOption.READ)) {
+                        transfer(in, out);
+                    }
+                }
+            }
+            replace(temp, target);
+            deleteRecursively(uploadDir);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void abortMultipartUpload(String key, String uploadId) {
+        try {
+            deleteRecursively(requireUpload(key, uploadId));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public List<PendingMultipartUpload> listMultipartUploads(String prefix) {
+        List<PendingMultipartUpload> uploads = new ArrayList<>();
+        try (DirectoryStream<Path> uploadDirs = Files.newDirectoryStream(root.resolve(MULTIPART_DIR))) {
+            for (Path uploadDir : uploadDirs) {
+                Path keyFile = uploadDir.resolve(UPLOAD_KEY_FILE);
+                if (!Files.exists(keyFile)) {
+                    continue;
+                }
+                String key = Files.readString(keyFile);
+                if (key.startsWith(prefix)) {
+                    uploads.add(new PendingMultipartUpload(key, uploadDir.getFileName().toString(), lastModified(keyFile)));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return uploads;
+    }
+
+    public Path resolveExisting(String key) {
+        Path file = resolve(key);
+        if (!Files.isRegularFile(file)) {
+            throw new NoSuchElementException("Object not found: " + key);
+        }
+        return file;
+    }
+
+    public String write(String key, InputStream content) throws IOException {
+        Path target = resolve(key);
+        Path temp = tempFileFor(target);
+        String etag = writeWithEtag(content, temp);
+        replace(temp, target);
+        return etag;
+    }
+
+    public String writePart(String key, String uploadId, int partNumber, InputStream content) throws IOException {
+        if (partNumber < 1) {
+            throw new IllegalArgumentException("Invalid part number: " + partNumber);
+        }
+        Path uploadDir = requireUpload(key, uploadId);
+        Path temp = Files.createTempFile(uploadDir, TEMP_PREFIX, null);
+        String etag = writeWithEtag(content, temp);
+        replace(temp, uploadDir.resolve(String.valueOf(partNumber)));
+        Files.writeString(uploadDir.resolve(partNumber + ".etag"), etag);
+        return etag;
+    }
+
+    public void verify(String method, String key, String uploadId, Integer partNumber, long expires, String signature) {
+        if (Instant.now().getEpochSecond() > expires) {
+            throw new InvalidSignatureException("URL has expired");
+        }
+        byte[] expected = sign(method, key, uploadId, partNumber, expires).getBytes(StandardCharsets.US_ASCII);
+        if (signature == null || !MessageDigest.isEqual(expected, signature.getBytes(StandardCharsets.US_ASCII))) {
+            throw new InvalidSignatureException("Invalid URL signature");
+        }
+    }
+
+    private URL signedUrl(String method, String key, String uploadId, Integer partNumber, Duration expiration) {
+        resolve(key);
+        long expires = Instant.now().plus(expiration).getEpochSecond();
+        StringBuilder url = new StringBuilder(baseUrl).append('/').append(encodePath(key)).append('?');
+        if (uploadId != null) {
+            url.append("uploadId=").append(uploadId).append("&partNumber=").append(partNumber).append('&');
+        }
+        url.append("expires=").append(expires)
+                .append("&signature=").append(sign(method, key, uploadId, partNumber, expires));
+        try {
+            return URI.create(url.toString()).toURL();
+        } catch (MalformedURLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String sign(String method, String key, String uploadId, Integer partNumber, long expires) {
+        String payload = String.join("\n", method, key, uploadId != null ? uploadId : "",
+                partNumber != null ? partNumber.toString() : "", Long.toString(expires));
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(signingKey);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(mac.doFinal(payload.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Could not sign storage URL", e);
+        }
+    }
+
+    private Path resolve(String key) {
+        // S3 keys are literal, so "." and ".." segments must not be folded into a different object here
+        for (String segment : key.split("/", -1)) {
+            if (segment.isEmpty() || segment.equals(".") || segment.equals("..") || segment.contains("\\")) {
+                throw new IllegalArgumentException("Invalid object key: " + key);
+            }
+        }
+        Path file = root.resolve(key);
+        if (!file.normalize().equals(file) || !file.startsWith(root) || file.startsWith(root.resolve(MULTIPART_DIR))) {
+            throw new IllegalArgumentException("Invalid object key: " + key);
+        }
+        return file;
+    }
+
+    private String keyOf(Path file) {
+        return root.relativize(file).toString().replace(file.getFileSystem().getSeparator(), "/");
+    }
+
+    private Path uploadDir(String uploadId) {
+        Path uploadDir = root.resolve(MULTIPART_DIR).resolve(uploadId).normalize();
+        if (!uploadDir.getParent().equals(root.resolve(MULTIPART_DIR))) {
+            throw new IllegalArgumentException("Invalid upload id: " + uploadId);
+        }
+        return uploadDir;
+    }
+
+    private Path requireUpload(String key, String uploadId) {
+        Path uploadDir = uploadDir(uploadId);
+        try {
+            Path keyFile = uploadDir.resolve(UPLOAD_KEY_FILE);
+            if (!Files.exists(keyFile) || !Files.readString(keyFile).equals(key)) {
+                throw new NoSuchElementException("Multipart upload not found: " + uploadId);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return uploadDir;
+    }
+
+    private void copyFile(Path source, Path destination, String sourceKey) {
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ)) {
+            Path temp = tempFileFor(destination);
+            try (FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                transfer(in, out);
+            }
+            replace(temp, destination);
+        } catch (NoSuchFileException e) {
+            throw new NoSuchElementException("Object not found: " + sourceKey);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Path tempFileFor(Path target) throws IOException {
+        Files.createDirectories(target.getParent());
+        return Files.createTempFile(target.getParent(), TEMP_PREFIX, null);
+    }
+
+    private <T> CompletableFuture<T> async(Supplier<T> operation) {
+        return CompletableFuture.supplyAsync(operation, ioExecutor);
+    }
+
+    private static String writeWithEtag(InputStream content, Path target) throws IOException {
+        MessageDigest md5;
+        try {
+            md5 = MessageDigest.getInstance("MD5");
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+        try (DigestInputStream in = new DigestInputStream(content, md5)) {
+            Files.copy(in, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return "\"" + HexFormat.of().formatHex(md5.digest()) + "\"";
+    }
+
+    private static void transfer(FileChannel in, FileChannel out) throws IOException {
+        // transferTo may move fewer bytes than asked, e.g. when the kernel caps a single sendfile call
+        long size = in.size();
+        long position = 0;
+        while (position < size) {
+            position += in.transferTo(position, size - position, out);
+        }
+    }
+
+    private static void replace(Path temp, Path target) throws IOException {
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static Instant lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toInstant();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void deleteRecursively(Path directory) throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    private static String encodePath(String key) {
+        StringBuilder encoded = new StringBuilder();
+        for (String segment : key.split("/", -1)) {
+            if (!encoded.isEmpty()) {
+                encoded.append('/');
+            }
+            encoded.append(URLEncoder.encode(segment, StandardCharsets.UTF_8).replace("+", "%20"));
+        }
+        return encoded.toString();
+    }
+}
@@ -0,0 +1,71 @@
+package com.tvz.mediaapp.backend.storage;
+
+import org.springframework.core.io.Resource;
+
+import java.net.URL;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Raw object operations behind {@link com.tvz.mediaapp.backend.service.StorageService}.
+ * Keys are '/'-separated paths. A missing object is reported as {@link java.util.NoSuchElementException},
+ * directly or as the cause of a failed future.
+ */
+public interface ObjectStore {
+
+    URL presignPut(String key, Duration expiration);
+
+    URL presignGet(String key, Duration expiration);
+
+    void put(String key, byte[] content, String contentType);
+
+    /**
+     * A seekable view of the object for stores that hold the bytes themselves, or empty when
+     * clients should read through {@link #presignGet} instead.
+     */
+    Optional<Resource> openResource(String key);
+
+    /** Writes the object to {@code target}, replacing it if it exists. */
+    void get(String key, Path target);
+
+    CompletableFuture<Void> copy(String sourceKey, String destinationKey);
+
+    /**
+     * Makes the source object available under the destination key. Stores that cannot rename
+     * (S3) copy instead, so callers still delete the source once all moves are done.
+     */
+    CompletableFuture<Void> move(String sourceKey, String destinationKey);
+
+    /** Deletes the objects and returns the keys that could not be deleted with the reason. */
+    CompletableFuture<Map<String, String>> delete(List<String> keys);
+
+    /** Lists keys under {@code prefix} in lexicographic order, starting after {@code startAfter} if given. */
+    ObjectListing list(String prefix, String startAfter, int maxKeys);
+
+    String createMultipartUpload(String key, String contentType);
+
+    URL presignUploadPart(String key, String uploadId, int partNumber, Duration expiration);
+
+    void completeMultipartUpload(String key, String uploadId, List<UploadedPart> parts);
+
+    void abortMultipartUpload(String key, String uploadId);
+
+    List<PendingMultipartUpload> listMultipartUploads(String prefix);
+
+    record StoredObject(String key, Instant lastModified) {
+    }
+
+    record ObjectListing(List<StoredObject> objects, boolean truncated) {
+    }
+
+    record UploadedPart(int partNumber, String etag) {
+    }
+
+    record PendingMultipartUpload(String key, String uploadId, Instant initiated) {
+    }
+}
@@ -0,0 +1,188 @@
+package com.tvz.mediaapp.backend.storage;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Response;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+@Component
+@ConditionalOnProperty(name = "storage.backend", havingValue = "s3", matchIfMissing = true)
+public class S3ObjectStore implements ObjectStore {
+
+    private final S3Client s3Client;
+    private final S3AsyncClient s3AsyncClient;
+    private final S3Presigner s3Presigner;
+    private final String bucketName;
+
+    public S3ObjectStore(S3Client s3Client, S3AsyncClient s3AsyncClient, S3Presigner s3Presigner,
+                         @Value("${aws.s3.bucket-name}") String bucketName) {
+        this.s3Client = s3Client;
+        this.s3AsyncClient = s3AsyncClient;
+        this.s3Presigner = s3Presigner;
+        this.bucketName = bucketName;
+    }
+
+    @Override
+    public URL presignPut(String key, Duration expiration) {
+        return s3Presigner.presignPutObject(builder -> builder
+                .signatureDuration(expiration)
+                .putObjectRequest(request -> request.bucket(bucketName).key(key))).url();
+    }
+
+    @Override
+    public URL presignGet(String key, Duration expiration) {
+        return s3Presigner.presignGetObject(builder -> builder
+                .signatureDuration(expiration)
+                .getObjectRequest(request -> request.bucket(bucketName).key(key))).url();
+    }
+
+    @Override
+    public void put(String key, byte[] content, String contentType) {
+        s3Client.putObject(builder -> builder
+                        .bucket(bucketName)
+                        .key(key)
+                        .contentType(contentType),
+                RequestBody.fromBytes(content));
+    }
+
+    @Override
+    public Optional<Resource> openResource(String key) {
+        return Optional.empty();
+    }
+
+    @Override
+    public void get(String key, Path target) {
+        try {
+            Files.deleteIfExists(target);
+            s3Client.getObject(builder -> builder.bucket(bucketName).key(key), target);
+        } catch (NoSuchKeyException e) {
+            throw new NoSuchElementException("Object not found: " + key);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public CompletableFuture<Void> copy(String sourceKey, String destinationKey) {
+        return s3AsyncClient.copyObject(builder -> builder
+                        .sourceBucket(bucketName)
+                        .sourceKey(sourceKey)
+                        .destinationBucket(bucketName)
+                        .destinationKey(destinationKey))
+                .handle((response, e) -> {
+                    if (e == null) {
+                        return null;
+                    }
+                    Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+                    if (cause instanceof NoSuchKeyException) {
+                        throw new NoSuchElementException("Object not found: " + sourceKey);
+                    }
+                    throw new CompletionException(cause);
+                });
+    }
+
+    @Override
+    public CompletableFuture<Void> move(String sourceKey, String destinationKey) {
+        return copy(sourceKey, destinationKey);
+    }
+
+    @Override
+    public CompletableFuture<Map<String, String>> delete(List<String> keys) {
+        return s3AsyncClient.deleteObjects(builder -> builder
+                        .bucket(bucketName)
+                        .delete(delete -> delete
+                                .objects(keys.stream().map(key -> ObjectIdentifier.builder().key(key).build()).toList())
+                                .quiet(true)))
+                .thenApply(response -> {
+                    Map<String, String> failed = new LinkedHashMap<>();
+                    response.errors().forEach(error -> failed.put(error.key(), error.code() + ": " + error.message()));
+                    return failed;
+                });
+    }
+
+    @Override
+    public ObjectListing list(String prefix, String startAfter, int maxKeys) {
+        ListObjectsV2Response response = s3Client.listObjectsV2(builder -> builder
+                .bucket(bucketName)
+                .prefix(prefix)
+                .startAfter(startAfter)
+                .maxKeys(maxKeys));
+        List<StoredObject> objects = response.contents().stream()
+                .map(object -> new StoredObject(object.key(), object.lastModified()))
+                .toList();
+        return new ObjectListing(objects, Boolean.TRUE.equals(response.isTruncated()));
+    }
+
+    @Override
+    public String createMultipartUpload(String key, String contentType) {
+        return s3Client.createMultipartUpload(builder -> builder
+                .bucket(bucketName)
+                .key(key)
+                .contentType(contentType)).uploadId();
+    }
+
+    @Override
+    public URL presignUploadPart(String key, String uploadId, int partNumber, Duration expiration) {
+        return s3Presigner.presignUploadPart(builder -> builder
+                .signatureDuration(expiration)
+                .uploadPartRequest(request -> request
+                        .bucket(bucketName)
+                        .key(key)
+                        .uploadId(uploadId)
+                        .partNumber(partNumber))).url();
+    }
+
+    @Override
+    public void completeMultipartUpload(String key, String uploadId, List<UploadedPart> parts) {
+        List<CompletedPart> completedParts = parts.stream()
+                .sorted(Comparator.comparingInt(UploadedPart::partNumber))
+                .map(part -> CompletedPart.builder().partNumber(part.partNumber()).eTag(part.etag()).build())
+                .toList();
+        s3Client.completeMultipartUpload(builder -> builder
+                .bucket(bucketName)
+                .key(key)
+                .uploadId(uploadId)
+                .multipartUpload(upload -> upload.parts(completedParts)));
+    }
+
+    @Override
+    public void abortMultipartUpload(String key, String uploadId) {
+        s3Client.abortMultipartUpload(builder -> builder
+                .bucket(bucketName)
+                .key(key)
+                .uploadId(uploadId));
+    }
+
+    @Override
+    public List<PendingMultipartUpload> listMultipartUploads(String prefix) {
+        return s3Client.listMultipartUploadsPaginator(builder -> builder
+                        .bucket(bucketName)
+                        .prefix(prefix))
+                .uploads().stream()
+                .map(upload -> new PendingMultipartUpload(upload.key(), upload.uploadId(), upload.initiated()))
+                .toList();
+    }
+}
@@ -0,0 +1,128 @@
+package com.tvz.mediaapp.backend.controller;
+
+import com.tvz.mediaapp.backend.exception.GlobalExceptionHandler;
+import com.tvz.mediaapp.backend.storage.LocalObjectStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class LocalStorageControllerTest {
+
+    private static final String KEY = "media/posts/p/clip.mp4";
+
+    @TempDir
+    private Path root;
+
+    private LocalObjectStore store;
+    private MockMvc mockMvc;
+    private byte[] content;
+
+    @BeforeEach
+    void setUp() {
+        store = new LocalObjectStore(root, "http://localhost/files", "test-signing-key", 2, false);
+        mockMvc = MockMvcBuilders.standaloneSetup(new LocalStorageController(store))
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+        content = new byte[100_000];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) i;
+        }
+        store.put(KEY, content, "video/mp4");
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.shutdown();
+    }
+
+    @Test
+    void servesWholeObjectWithCacheHeaders() throws Exception {
+        MvcResult result = mockMvc.perform(get(signedGet()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "video/mp4"))
+                .andReturn();
+
+        MockHttpServletResponse response = result.getResponse();
+        assertArrayEquals(content, response.getContentAsByteArray());
+        assertNotNull(response.getHeader(HttpHeaders.ETAG));
+        assertTrue(response.getHeader(HttpHeaders.CACHE_CONTROL).contains("immutable"));
+    }
+
+    @Test
+    void servesSingleAndSuffixRanges() throws Exception {
+        MockHttpServletResponse range = mockMvc.perform(get(signedGet()).header(HttpHeaders.RANGE, "bytes=100-199"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 100-199/100000"))
+                .andReturn().getResponse();
+        assertArrayEquals(Arrays.copyOfRange(content, 100, 200), range.getContentAsByteArray());
+
+        MockHttpServletResponse suffix = mockMvc.perform(get(signedGet()).header(HttpHeaders.RANGE, "bytes=-10"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 99990-99999/100000"))
+                .andReturn().getResponse();
+        assertArrayEquals(Arrays.copyOfRange(content, 99_990, 100_000), suffix.getContentAsByteArray());
+
+        mockMvc.perform(get(signedGet()).header(HttpHeaders.RANGE, "bytes=100000-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */100000"));
+    }
+
+    @Test
+    void answersMatchingEtagWithNotModified() throws Exception {
+        String etag = mockMvc.perform(get(signedGet()))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        MockHttpServletResponse response = mockMvc.perform(get(signedGet()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andReturn().getResponse();
+        assertEquals(0, response.getContentAsByteArray().length);
+        assertTrue(response.getHeader(HttpHeaders.CACHE_CONTROL).contains("immutable"));
+    }
+
+    @Test
+    void handsLargeRangesToTomcatSendfile() throws Exception {
+        MvcResult result = mockMvc.perform(get(signedGet())
+                        .requestAttr("org.apache.tomcat.sendfile.support", Boolean.TRUE)
+                        .header(HttpHeaders.RANGE, "bytes=1000-"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 1000-99999/100000"))
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 99_000))
+                .andReturn();
+
+        assertEquals(store.resolveExisting(KEY).toString(), result.getRequest().getAttribute("org.apache.tomcat.sendfile.filename"));
+        assertEquals(1000L, result.getRequest().getAttribute("org.apache.tomcat.sendfile.start"));
+        assertEquals(100_000L, result.getRequest().getAttribute("org.apache.tomcat.sendfile.end"));
+        assertEquals(0, result.getResponse().getContentAsByteArray().length);
+    }
+
+    @Test
+    void rejectsTamperedSignature() throws Exception {
+        URI signed = signedGet();
+        mockMvc.perform(get(URI.create(signed.toString().replace("clip.mp4", "other.mp4"))))
+                .andExpect(status().isForbidden());
+    }
+
+    private URI signedGet() throws Exception {
+        return store.presignGet(KEY, Duration.ofMinutes(5)).toURI();
+    }
+}
@@ -0,0 +1,145 @@
+package com.tvz.mediaapp.backend.metrics;
+
+import com.tvz.mediaapp.backend.config.MetricsConfig;
+import com.tvz.mediaapp.backend.filter.JwtAuthFilter;
+import com.tvz.mediaapp.backend.model.Role;
+import com.tvz.mediaapp.backend.model.User;
+import com.tvz.mediaapp.backend.service.JwtService;
+import com.tvz.mediaapp.backend.service.UserPrincipalService;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.context.PropertyPlaceholderAutoConfiguration;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.embedded.EmbeddedWebServerFactoryCustomizerAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.DispatcherServletAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.ServletWebServerFactoryAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class RequestMetricsTest {
+
+    private static final String ENDPOINT = "/probe/{id}";
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired private JwtService jwtService;
+    @Autowired private SimpleMeterRegistry meterRegistry;
+
+    @MockitoBean private UserPrincipalService userPrincipalService;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = User.builder().id(1L).username("alice").email("alice@example.com").role(Role.USER).build();
+        when(userPrincipalService.resolve(any())).thenReturn(user);
+    }
+
+    @Test
+    void tagsAuthenticationAndSerializationWithTheMatchedEndpoint() throws Exception {
+        String token = jwtService.generateToken(user);
+        double misses = meterRegistry.get("auth.jwt.cache").tags("result", "miss").counter().count();
+        assertEquals(200, get("/api/probe/42", token));
+        awaitCount("auth.principal.resolve", 1, "uri", ENDPOINT, "outcome", "success");
+
+        assertEquals(1, count("auth.jwt.verify", "uri", ENDPOINT, "outcome", "valid"));
+        assertEquals(1, count("http.server.serialization", "uri", ENDPOINT, "outcome", "success"));
+        assertEquals(misses + 1, meterRegistry.get("auth.jwt.cache").tags("result", "miss").counter().count());
+
+        assertEquals(200, get("/api/probe/43", token));
+        awaitCount("auth.principal.resolve", 2, "uri", ENDPOINT, "outcome", "success");
+        assertEquals(misses + 1, meterRegistry.get("auth.jwt.cache").tags("result", "miss").counter().count());
+        assertEquals(1, meterRegistry.get("auth.jwt.cache").tags("result", "hit").counter().count());
+    }
+
+    @Test
+    void recordsRejectedTokensWithoutResolvingAPrincipal() throws Exception {
+        assertEquals(200, get("/api/probe", "not-a-token"));
+        awaitCount("auth.jwt.verify", 1, "uri", "/probe", "outcome", "invalid");
+
+        assertEquals(0, count("auth.principal.resolve", "uri", "/probe"));
+        assertEquals(1, count("http.server.serialization", "uri", "/probe", "outcome", "success"));
+    }
+
+    private int get(String path, String token) throws Exception {
+        return client.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header("Authorization", "Bearer " + token)
+                .build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private long count(String timer, String... tags) {
+        Timer found = meterRegistry.find(timer).tags(tags).timer();
+        return found != null ? found.count() : 0;
+    }
+
+    // the filter records once the response has been handed back, which can be after the client sees it
+    private void awaitCount(String timer, long expected, String... tags) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (count(timer, tags) < expected) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError(timer + " was not recorded");
+            }
+            Thread.sleep(5);
+        }
+    }
+
+    @RestController
+    static class ProbeController {
+
+        @GetMapping(ENDPOINT)
+        Map<String, String> probe(@PathVariable String id) {
+            return Map.of("id", id);
+        }
+
+        @GetMapping("/probe")
+        Map<String, String> probe() {
+            return Map.of();
+        }
+    }
+
+    @SpringBootConfiguration
+    @ImportAutoConfiguration({
+            PropertyPlaceholderAutoConfiguration.class,
+            ServletWebServerFactoryAutoConfiguration.class,
+            EmbeddedWebServerFactoryCustomizerAutoConfiguration.class,
+            DispatcherServletAutoConfiguration.class,
+            WebMvcAutoConfiguration.class,
+            HttpMessageConvertersAutoConfiguration.class,
+            JacksonAutoConfiguration.class
+    })
+    @Import({MetricsConfig.class, JwtAuthFilter.class, JwtService.class, ProbeController.class})
+    static class ProbeServer {
+
+        @Bean
+        SimpleMeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
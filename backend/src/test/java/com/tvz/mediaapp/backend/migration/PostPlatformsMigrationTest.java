@@ -0,0 +1,81 @@
+package com.tvz.mediaapp.backend.migration;
+
+import com.tvz.mediaapp.backend.model.Post;
+import com.tvz.mediaapp.backend.model.Role;
+import com.tvz.mediaapp.backend.model.User;
+import com.tvz.mediaapp.backend.repository.PostRepository;
+import com.tvz.mediaapp.backend.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false"
+})
+@Import(PostPlatformsMigration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PostPlatformsMigrationTest {
+
+    @Autowired private PostPlatformsMigration migration;
+    @Autowired private PostRepository postRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS post_platforms");
+        jdbcTemplate.execute("DROP TABLE IF EXISTS schema_migrations");
+        postRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void copiesLegacyPlatformsOnceAndKeepsTheLegacyTable() throws Exception {
+        User user = userRepository.save(User.builder().username("legacy").email("legacy@example.com").password("secret").role(Role.USER).build());
+        Post tagged = postRepository.save(post(user));
+        Post unknown = postRepository.save(post(user));
+        jdbcTemplate.execute("CREATE TABLE post_platforms (post_uuid UUID, platform VARCHAR(255))");
+        jdbcTemplate.update("INSERT INTO post_platforms VALUES (?, 'TIKTOK'), (?, 'X'), (?, 'BOGUS')",
+                tagged.getUuid(), tagged.getUuid(), unknown.getUuid());
+
+        migration.init();
+
+        assertEquals(List.of("TIKTOK", "X"), postRepository.findById(tagged.getUuid()).orElseThrow().getPlatforms());
+        assertEquals(List.of(), postRepository.findById(unknown.getUuid()).orElseThrow().getPlatforms());
+        assertEquals(3, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM post_platforms", Integer.class));
+
+        Post edited = postRepository.findById(tagged.getUuid()).orElseThrow();
+        edited.setPlatforms(new ArrayList<>(List.of("YOUTUBE")));
+        postRepository.save(edited);
+
+        migration.init();
+
+        assertEquals(List.of("YOUTUBE"), postRepository.findById(tagged.getUuid()).orElseThrow().getPlatforms());
+    }
+
+    private static Post post(User user) {
+        return Post.builder()
+                .uuid(UUID.randomUUID())
+                .title("Legacy")
+                .publishDate(LocalDate.of(2025, 1, 1))
+                .status("IN_PROGRESS")
+                .platforms(new ArrayList<>())
+                .mediaType("NONE")
+                .mediaUris(new ArrayList<>())
+                .user(user)
+                .build();
+    }
+}
@@ -0,0 +1,111 @@
+package com.tvz.mediaapp.backend.service;
+
+import com.tvz.mediaapp.backend.model.MediaUpload;
+import com.tvz.mediaapp.backend.model.Post;
+import com.tvz.mediaapp.backend.model.Role;
+import com.tvz.mediaapp.backend.model.User;
+import com.tvz.mediaapp.backend.repository.MediaUploadRepository;
+import com.tvz.mediaapp.backend.repository.PostReadRepository;
+import com.tvz.mediaapp.backend.repository.PostRepository;
+import com.tvz.mediaapp.backend.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "storage.direct-upload.max-age-ms=-60000",
+        "storage.direct-upload.batch-size=2"
+})
+@Import({MediaUploadService.class, PostReadRepository.class, SimpleMeterRegistry.class})
+class MediaUploadServiceTest {
+
+    @Autowired private MediaUploadService mediaUploadService;
+    @Autowired private MediaUploadRepository mediaUploadRepository;
+    @Autowired private PostRepository postRepository;
+    @Autowired private UserRepository userRepository;
+
+    @MockitoBean private StorageService storageService;
+
+    private User owner;
+    private User other;
+    private Post post;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(User.builder().username("owner").email("owner@example.com").password("secret").role(Role.USER).build());
+        other = userRepository.save(User.builder().username("other").email("other@example.com").password("secret").role(Role.USER).build());
+        post = postRepository.save(Post.builder()
+                .uuid(UUID.randomUUID())
+                .title("Post")
+                .publishDate(LocalDate.of(2025, 1, 1))
+                .status("IN_PROGRESS")
+                .platforms(new ArrayList<>(List.of("X")))
+                .mediaType("IMAGE")
+                .mediaUris(new ArrayList<>(List.of("a.jpg")))
+                .user(owner)
+                .build());
+    }
+
+    @Test
+    void rejectsUploadsToPostsOfOtherUsers() {
+        assertThrows(NoSuchElementException.class, () -> mediaUploadService.reserve(other, post.getUuid(), "x.jpg"));
+        mediaUploadService.reserve(owner, post.getUuid(), "x.jpg");
+        mediaUploadService.reserve(other, UUID.randomUUID(), "y.jpg");
+        assertThrows(IllegalArgumentException.class, () -> mediaUploadService.reserve(other, UUID.randomUUID(), "../" + post.getUuid() + "/a.jpg"));
+        assertEquals(2, mediaUploadRepository.count());
+    }
+
+    @Test
+    void onlyTheReservingUserMayFinishAnUpload() {
+        UUID newPost = UUID.randomUUID();
+        mediaUploadService.reserve(owner, post.getUuid(), "x.jpg");
+        mediaUploadService.reserve(owner, newPost, "y.jpg");
+
+        mediaUploadService.requireReservation(owner, post.getUuid(), "x.jpg");
+        mediaUploadService.requireReservation(owner, newPost, "y.jpg");
+        assertThrows(NoSuchElementException.class, () -> mediaUploadService.requireReservation(other, post.getUuid(), "x.jpg"));
+        assertThrows(NoSuchElementException.class, () -> mediaUploadService.requireReservation(other, newPost, "y.jpg"));
+        assertThrows(NoSuchElementException.class, () -> mediaUploadService.requireReservation(owner, newPost, "x.jpg"));
+    }
+
+    @Test
+    void reclaimsOnlyUploadsThePostDoesNotReference() {
+        for (String filename : List.of("a.jpg", "a_thumb.jpg", "b.jpg", "b_thumb.jpg")) {
+            mediaUploadService.reserve(owner, post.getUuid(), filename);
+        }
+        when(storageService.deleteUploadedObjects(any(), any())).thenReturn(Set.of());
+
+        assertEquals(2, mediaUploadService.reclaimAbandonedUploads());
+
+        verify(storageService).deleteUploadedObjects(post.getUuid(), List.of("b.jpg", "b_thumb.jpg"));
+        assertEquals(List.of(), mediaUploadRepository.findAll().stream().map(MediaUpload::getFilename).toList());
+    }
+
+    @Test
+    void keepsUploadsWhoseDeletionFailed() {
+        mediaUploadService.reserve(owner, post.getUuid(), "b.jpg");
+        mediaUploadService.reserve(owner, post.getUuid(), "c.jpg");
+        when(storageService.deleteUploadedObjects(any(), any())).thenReturn(Set.of("c.jpg"));
+
+        assertEquals(1, mediaUploadService.reclaimAbandonedUploads());
+        assertEquals(List.of("c.jpg"), mediaUploadRepository.findAll().stream().map(MediaUpload::getFilename).toList());
+    }
+}
@@ -0,0 +1,196 @@
+package com.tvz.mediaapp.backend.service;
+
+import com.tvz.mediaapp.backend.model.MediaVariant;
+import com.tvz.mediaapp.backend.repository.MediaVariantRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.jcodec.api.awt.AWTSequenceEncoder;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "storage.variants.video-frame=5",
+        "storage.variants.max-pixels=4000000"
+})
+@Import({MediaVariantService.class, SimpleMeterRegistry.class})
+class MediaVariantServiceTest {
+
+    @Autowired private MediaVariantService mediaVariantService;
+    @Autowired private MediaVariantRepository mediaVariantRepository;
+
+    @MockitoBean private StorageService storageService;
+
+    @Test
+    void generatesDownscaledJpegVariantsAndResolvesSmallestFittingOne() throws IOException {
+        UUID postUuid = UUID.randomUUID();
+        Map<String, byte[]> uploads = captureUploads(postUuid);
+        serve(postUuid, "photo.png", png(2000, 1000));
+
+        assertTrue(mediaVariantService.generateVariants(postUuid, List.of("photo.png")).isEmpty());
+
+        assertEquals(3, uploads.size());
+        BufferedImage thumbnail = ImageIO.read(new ByteArrayInputStream(uploads.get("photo_thumb.jpg")));
+        assertEquals(150, thumbnail.getWidth());
+        assertEquals(75, thumbnail.getHeight());
+        BufferedImage preview = ImageIO.read(new ByteArrayInputStream(uploads.get("photo_preview.jpg")));
+        assertEquals(1280, preview.getWidth());
+        assertEquals(3, mediaVariantRepository.findAllByPostUuidIn(List.of(postUuid)).size());
+
+        Map<String, String> resolved = mediaVariantService.resolveObjects(
+                Map.of(postUuid, List.of("photo.png", "legacy.png")), false, 300).get(postUuid);
+        assertEquals("photo_grid.jpg", resolved.get("photo.png"));
+        assertEquals("legacy.png", resolved.get("legacy.png"));
+        assertEquals("photo.png", mediaVariantService.resolveObjects(Map.of(postUuid, List.of("photo.png")), false, 4000)
+                .get(postUuid).get("photo.png"));
+        assertEquals("legacy_thumb.jpg", mediaVariantService.resolveObjects(Map.of(postUuid, List.of("legacy.png")), true, 150)
+                .get(postUuid).get("legacy.png"));
+
+        mediaVariantService.generateVariants(postUuid, List.of("photo.png"));
+        assertEquals(3, mediaVariantRepository.findAllByPostUuidIn(List.of(postUuid)).size());
+    }
+
+    @Test
+    void keepsSmallSourcesAtTheirOwnSize() throws IOException {
+        UUID postUuid = UUID.randomUUID();
+        Map<String, byte[]> uploads = captureUploads(postUuid);
+        serve(postUuid, "icon.png", png(100, 60));
+
+        mediaVariantService.generateVariants(postUuid, List.of("icon.png"));
+
+        BufferedImage preview = ImageIO.read(new ByteArrayInputStream(uploads.get("icon_preview.jpg")));
+        assertEquals(100, preview.getWidth());
+        assertEquals(60, preview.getHeight());
+        assertEquals("icon_preview.jpg", mediaVariantService.resolveObjects(Map.of(postUuid, List.of("icon.png")), false, 4000)
+                .get(postUuid).get("icon.png"));
+    }
+
+    @Test
+    void rejectsImagesAboveThePixelLimitAndSubsamplesLargeOnes() throws IOException {
+        UUID postUuid = UUID.randomUUID();
+        Map<String, byte[]> uploads = captureUploads(postUuid);
+        serve(postUuid, "huge.png", png(4000, 1001));
+        serve(postUuid, "wide.png", png(6000, 600));
+
+        assertTrue(mediaVariantService.generateVariants(postUuid, List.of("huge.png", "wide.png")).isEmpty());
+
+        assertEquals(List.of("wide_grid.jpg", "wide_preview.jpg", "wide_thumb.jpg"), uploads.keySet().stream().sorted().toList());
+        assertEquals(List.of("wide.png"), mediaVariantRepository.findAllByPostUuidIn(List.of(postUuid)).stream()
+                .map(MediaVariant::getFilename).distinct().toList());
+        BufferedImage preview = ImageIO.read(new ByteArrayInputStream(uploads.get("wide_preview.jpg")));
+        assertEquals(1280, preview.getWidth());
+        assertEquals(128, preview.getHeight());
+    }
+
+    @Test
+    void grabsFrameFromVideo() throws IOException {
+        UUID postUuid = UUID.randomUUID();
+        Map<String, byte[]> uploads = captureUploads(postUuid);
+        Path video = Files.createTempFile("variant-test-", ".mp4");
+        try {
+            AWTSequenceEncoder encoder = AWTSequenceEncoder.createSequenceEncoder(video.toFile(), 25);
+            for (int i = 0; i < 10; i++) {
+                encoder.encodeImage(solid(320, 240, Color.BLUE));
+            }
+            encoder.finish();
+            serve(postUuid, "clip.mp4", Files.readAllBytes(video));
+        } finally {
+            Files.deleteIfExists(video);
+        }
+
+        assertTrue(mediaVariantService.generateVariants(postUuid, List.of("clip.mp4")).isEmpty());
+
+        BufferedImage thumbnail = ImageIO.read(new ByteArrayInputStream(uploads.get("clip_thumb.jpg")));
+        assertEquals(150, thumbnail.getWidth());
+        assertEquals(113, thumbnail.getHeight());
+    }
+
+    @Test
+    void skipsUnsupportedAndMissingFiles() {
+        UUID postUuid = UUID.randomUUID();
+        serve(postUuid, "notes.txt", "not an image".getBytes());
+        doThrow(new NoSuchElementException("gone"))
+                .when(storageService).downloadMediaObject(eq(postUuid), eq("gone.png"), any());
+
+        assertTrue(mediaVariantService.generateVariants(postUuid, List.of("notes.txt", "gone.png")).isEmpty());
+
+        verify(storageService, never()).uploadMediaObject(any(), anyString(), any(), anyString());
+        assertTrue(mediaVariantRepository.findAllByPostUuidIn(List.of(postUuid)).isEmpty());
+    }
+
+    @Test
+    void reportsFilesThatFailedToUpload() throws IOException {
+        UUID postUuid = UUID.randomUUID();
+        serve(postUuid, "photo.png", png(400, 300));
+        doThrow(new IllegalStateException("SlowDown"))
+                .when(storageService).uploadMediaObject(eq(postUuid), anyString(), any(), anyString());
+
+        Map<String, String> failed = mediaVariantService.generateVariants(postUuid, List.of("photo.png"));
+
+        assertEquals(List.of("photo.png"), List.copyOf(failed.keySet()));
+        assertTrue(mediaVariantRepository.findAllByPostUuidIn(List.of(postUuid)).isEmpty());
+    }
+
+    private void serve(UUID postUuid, String filename, byte[] content) {
+        doAnswer(invocation -> {
+            Files.write(invocation.getArgument(2, Path.class), content);
+            return null;
+        }).when(storageService).downloadMediaObject(eq(postUuid), eq(filename), any());
+    }
+
+    private Map<String, byte[]> captureUploads(UUID postUuid) {
+        Map<String, byte[]> uploads = new ConcurrentHashMap<>();
+        doAnswer(invocation -> {
+            uploads.put(invocation.getArgument(1), invocation.getArgument(2));
+            return null;
+        }).when(storageService).uploadMediaObject(eq(postUuid), anyString(), any(), eq("image/jpeg"));
+        return uploads;
+    }
+
+    private static byte[] png(int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(Color.RED);
+        graphics.fillRect(0, 0, width / 2, height);
+        graphics.dispose();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+
+    private static BufferedImage solid(int width, int height, Color color) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_3BYTE_BGR);
+        Graphics2D graphics = image.createGraphics();
+        graphics.setColor(color);
+        graphics.fillRect(0, 0, width, height);
+        graphics.dispose();
+        return image;
+    }
+}
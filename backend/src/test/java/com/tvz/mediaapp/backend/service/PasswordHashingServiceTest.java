@@ -0,0 +1,108 @@
+package com.tvz.mediaapp.backend.service;
+
+import com.tvz.mediaapp.backend.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PasswordHashingServiceTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private PasswordHashingService passwordHashingService;
+
+    @BeforeEach
+    void setUp() {
+        passwordHashingService = service(4, 1, 1, 10_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        passwordHashingService.shutdown();
+    }
+
+    @Test
+    void encodesAndMatchesOnThePool() {
+        String hash = passwordHashingService.encode("secret");
+
+        assertTrue(passwordHashingService.matches("secret", hash));
+        assertFalse(passwordHashingService.matches("wrong", hash));
+        assertEquals(1, meterRegistry.timer("auth.password.hashing", "operation", "encode").count());
+        assertEquals(2, meterRegistry.timer("auth.password.hashing", "operation", "matches").count());
+    }
+
+    @Test
+    void rejectsWorkBeyondTheQueue() throws Exception {
+        passwordHashingService.shutdown();
+        passwordHashingService = service(14, 1, 1, 10_000);
+
+        // one hash runs on the single worker, the other fills the queue
+        CompletableFuture.runAsync(() -> passwordHashingService.encode("first"));
+        CompletableFuture.runAsync(() -> passwordHashingService.encode("second"));
+        awaitQueued(1);
+
+        assertThrows(ServiceOverloadedException.class, () -> passwordHashingService.encode("third"));
+        assertEquals(1, meterRegistry.counter("auth.password.rejected").count());
+    }
+
+    @Test
+    void givesUpWhenTheWaitForAWorkerIsTooLong() {
+        passwordHashingService.shutdown();
+        passwordHashingService = service(14, 1, 1, 50);
+
+        assertThrows(ServiceOverloadedException.class, () -> passwordHashingService.encode("slow"));
+        assertEquals(1, meterRegistry.counter("auth.password.rejected").count());
+    }
+
+    @Test
+    void rehashesWeakerHashesInTheBackground() throws Exception {
+        String weak = new BCryptPasswordEncoder(4).encode("secret");
+        CompletableFuture<String> rehashed = new CompletableFuture<>();
+
+        passwordHashingService.shutdown();
+        passwordHashingService = service(5, 1, 1, 10_000);
+        passwordHashingService.rehashInBackground("secret", weak, rehashed::complete);
+
+        String upgraded = rehashed.get(30, TimeUnit.SECONDS);
+        assertTrue(upgraded.startsWith("$2a$05$"));
+        assertTrue(passwordHashingService.matches("secret", upgraded));
+
+        AtomicReference<String> unchanged = new AtomicReference<>();
+        passwordHashingService.rehashInBackground("secret", upgraded, unchanged::set);
+        assertNull(unchanged.get());
+    }
+
+    private PasswordHashingService service(int strength, int workers, int queueCapacity, long maxWaitMs) {
+        // a fresh registry so the queue gauge follows the new executor
+        meterRegistry = new SimpleMeterRegistry();
+        PasswordHashingService service = new PasswordHashingService(meterRegistry);
+        ReflectionTestUtils.setField(service, "bcryptStrength", strength);
+        ReflectionTestUtils.setField(service, "workers", workers);
+        ReflectionTestUtils.setField(service, "queueCapacity", queueCapacity);
+        ReflectionTestUtils.setField(service, "maxWaitMs", maxWaitMs);
+        service.init();
+        return service;
+    }
+
+    private void awaitQueued(int queued) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (meterRegistry.get("auth.password.queue").gauge().value() != queued) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("Hashing queue did not reach " + queued);
+            }
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.tvz.mediaapp.backend.service;
+
+import com.tvz.mediaapp.backend.model.Role;
+import com.tvz.mediaapp.backend.model.User;
+import com.tvz.mediaapp.backend.repository.PostReadRepository;
+import com.tvz.mediaapp.backend.repository.PostRepository;
+import com.tvz.mediaapp.backend.repository.PostTombstoneRepository;
+import com.tvz.mediaapp.backend.repository.UserRepository;
+import com.tvz.mediaapp.dto.PostChangesDto;
+import com.tvz.mediaapp.dto.PostDto;
+import com.tvz.mediaapp.dto.PostRequestDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false"
+})
+@Import({PostService.class, PostReadRepository.class, SimpleMeterRegistry.class, PostChangesConsistencyTest.RaceHook.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PostChangesConsistencyTest {
+
+    @Autowired private PostService postService;
+    @Autowired private PostRepository postRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    @Autowired private PostTombstoneRepository postTombstoneRepository;
+    @MockitoBean private StorageOutboxService storageOutboxService;
+
+    @AfterEach
+    void tearDown() {
+        RaceHook.beforeTombstoneQuery = null;
+        postTombstoneRepository.deleteAll();
+        postRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void changesCommittedBetweenTheFeedQueriesAreNotSkipped() {
+        User user = userRepository.save(User.builder()
+                .username("racer")
+                .email("racer@example.com")
+                .password("secret")
+                .role(Role.USER)
+                .build());
+        PostDto updated = postService.createPost(request("A"), user);
+        PostDto deleted = postService.createPost(request("B"), user);
+
+        // the update (v3) and then the delete (v4) commit after the posts query and before the tombstones query
+        TransactionTemplate concurrentWrite = new TransactionTemplate(transactionManager);
+        concurrentWrite.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        AtomicBoolean raced = new AtomicBoolean();
+        RaceHook.beforeTombstoneQuery = () -> {
+            RaceHook.beforeTombstoneQuery = null;
+            concurrentWrite.executeWithoutResult(status ->
+                    postService.updatePost(UUID.fromString(updated.getUuid()), request("A edited"), user));
+            concurrentWrite.executeWithoutResult(status ->
+                    postService.deletePost(UUID.fromString(deleted.getUuid()), user));
+            raced.set(true);
+        };
+
+        PostChangesDto first = postService.getChangesForUser(user, 0);
+        assertTrue(raced.get());
+        assertEquals(2, first.getVersion());
+        assertTrue(first.getDeleted().isEmpty());
+
+        PostChangesDto second = postService.getChangesForUser(user, first.getVersion());
+        assertEquals(4, second.getVersion());
+        assertFalse(second.isHasMore());
+        assertEquals(List.of("A edited"), second.getPosts().stream().map(PostDto::getTitle).toList());
+        assertEquals(List.of(deleted.getUuid()), second.getDeleted());
+    }
+
+    /** Runs a callback right before the change feed's tombstone query. */
+    static class RaceHook implements BeanPostProcessor {
+
+        static volatile Runnable beforeTombstoneQuery;
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof PostTombstoneRepository)) {
+                return bean;
+            }
+            return Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{PostTombstoneRepository.class}, (proxy, method, args) -> {
+                Runnable hook = beforeTombstoneQuery;
+                if (hook != null && method.getName().startsWith("findAllByUserId")) {
+                    hook.run();
+                }
+                try {
+                    return method.invoke(bean, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            });
+        }
+    }
+
+    private PostRequestDto request(String title) {
+        PostRequestDto dto = new PostRequestDto();
+        dto.setTitle(title);
+        dto.setPublishDate("2025-01-01");
+        dto.setStatus("IN_PROGRESS");
+        dto.setPlatforms(List.of("X"));
+        dto.setMediaType("NONE");
+        dto.setMediaUris(List.of());
+        return dto;
+    }
+}
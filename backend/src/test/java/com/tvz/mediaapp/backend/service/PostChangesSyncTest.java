@@ -0,0 +1,134 @@
+package com.tvz.mediaapp.backend.service;
+
+import com.tvz.mediaapp.backend.migration.PostChangeVersionMigration;
+import com.tvz.mediaapp.backend.model.Post;
+import com.tvz.mediaapp.backend.model.PostTombstone;
+import com.tvz.mediaapp.backend.model.Role;
+import com.tvz.mediaapp.backend.model.User;
+import com.tvz.mediaapp.backend.repository.PostReadRepository;
+import com.tvz.mediaapp.backend.repository.PostRepository;
+import com.tvz.mediaapp.backend.repository.PostTombstoneRepository;
+import com.tvz.mediaapp.backend.repository.UserRepository;
+import com.tvz.mediaapp.dto.PostChangesDto;
+import com.tvz.mediaapp.dto.PostDto;
+import com.tvz.mediaapp.dto.PostRequestDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false"
+})
+@Import({PostService.class, PostReadRepository.class, PostChangeVersionMigration.class, SimpleMeterRegistry.class})
+class PostChangesSyncTest {
+
+    @Autowired private PostService postService;
+    @Autowired private PostChangeVersionMigration migration;
+    @Autowired private PostRepository postRepository;
+    @Autowired private PostTombstoneRepository postTombstoneRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private EntityManager entityManager;
+
+    @MockitoBean private StorageOutboxService storageOutboxService;
+
+    private User user;
+
+    @BeforeEach
+    void createUser() {
+        user = userRepository.save(User.builder()
+                .username("syncer")
+                .email("syncer@example.com")
+                .password("secret")
+                .role(Role.USER)
+                .build());
+    }
+
+    @Test
+    void postsFromBeforeDeltaSyncAreReturnedAfterBackfill() {
+        Post legacy = postRepository.save(post("Legacy"));
+        entityManager.flush();
+        assertTrue(postService.getChangesForUser(user, 0).getPosts().isEmpty());
+
+        migration.run(null);
+        entityManager.clear();
+
+        PostChangesDto changes = postService.getChangesForUser(user, 0);
+        assertEquals(List.of(legacy.getUuid().toString()), changes.getPosts().stream().map(PostDto::getUuid).toList());
+        assertEquals(1, changes.getVersion());
+        assertTrue(postService.getChangesForUser(user, changes.getVersion()).getPosts().isEmpty());
+
+        PostDto created = postService.createPost(request("New"), user);
+        PostChangesDto next = postService.getChangesForUser(user, changes.getVersion());
+        assertEquals(List.of(created.getUuid()), next.getPosts().stream().map(PostDto::getUuid).toList());
+        assertEquals(2, next.getVersion());
+
+        migration.run(null);
+        assertEquals(2, userRepository.findPostsVersionById(user.getId()));
+    }
+
+    @Test
+    void clientsBehindPrunedTombstonesAreToldToResync() {
+        PostDto kept = postService.createPost(request("Kept"), user);
+        PostDto removed = postService.createPost(request("Removed"), user);
+        postService.deletePost(UUID.fromString(removed.getUuid()), user);
+        PostTombstone tombstone = postTombstoneRepository.findById(UUID.fromString(removed.getUuid())).orElseThrow();
+        tombstone.setDeletedAt(LocalDateTime.now().minusDays(365));
+        entityManager.flush();
+
+        assertEquals(1, postService.pruneTombstones());
+        entityManager.clear();
+
+        PostChangesDto stale = postService.getChangesForUser(user, 2);
+        assertTrue(stale.isReset());
+        assertTrue(stale.isHasMore());
+        assertEquals(0, stale.getVersion());
+
+        PostChangesDto full = postService.getChangesForUser(user, 0);
+        assertFalse(full.isReset());
+        assertEquals(List.of(kept.getUuid()), full.getPosts().stream().map(PostDto::getUuid).toList());
+        assertEquals(3, full.getVersion());
+
+        assertFalse(postService.getChangesForUser(user, 3).isReset());
+        assertEquals(0, postService.pruneTombstones());
+    }
+
+    private Post post(String title) {
+        return Post.builder()
+                .uuid(UUID.randomUUID())
+                .title(title)
+                .publishDate(LocalDate.of(2025, 1, 1))
+                .status("IN_PROGRESS")
+                .platforms(new ArrayList<>(List.of("X")))
+                .mediaType("NONE")
+                .mediaUris(new ArrayList<>())
+                .user(user)
+                .build();
+    }
+
+    private PostRequestDto request(String title) {
+        PostRequestDto dto = new PostRequestDto();
+        dto.setTitle(title);
+        dto.setPublishDate("2025-01-01");
+        dto.setStatus("IN_PROGRESS");
+        dto.setPlatforms(List.of("X"));
+        dto.setMediaType("NONE");
+        dto.setMediaUris(List.of());
+        return dto;
+    }
+}
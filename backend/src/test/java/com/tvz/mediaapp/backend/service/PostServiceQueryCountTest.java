@@ -0,0 +1,182 @@
+package com.tvz.mediaapp.backend.service;
+
+import com.tvz.mediaapp.backend.model.Post;
+import com.tvz.mediaapp.backend.model.Role;
+import com.tvz.mediaapp.backend.model.User;
+import com.tvz.mediaapp.backend.repository.PostReadRepository;
+import com.tvz.mediaapp.backend.repository.PostRepository;
+import com.tvz.mediaapp.backend.repository.UserRepository;
+import com.tvz.mediaapp.dto.PostChangesDto;
+import com.tvz.mediaapp.dto.PostDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({PostService.class, PostReadRepository.class, SimpleMeterRegistry.class, PostServiceQueryCountTest.StatementCounter.class})
+class PostServiceQueryCountTest {
+
+    private static final int POST_COUNT = 1000;
+
+    @Autowired private PostService postService;
+    @Autowired private PostRepository postRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private EntityManager entityManager;
+
+    @MockitoBean private StorageOutboxService storageOutboxService;
+
+    @Value("${posts.changes.max-limit}")
+    private int maxChangesLimit;
+
+    private User user;
+    private Statistics statistics;
+
+    @BeforeEach
+    void createPosts() {
+        user = userRepository.save(User.builder()
+                .username("heavy")
+                .email("heavy@example.com")
+                .password("secret")
+                .role(Role.USER)
+                .postsVersion(POST_COUNT)
+                .build());
+
+        List<Post> posts = new ArrayList<>();
+        for (int i = 0; i < POST_COUNT; i++) {
+            posts.add(Post.builder()
+                    .uuid(UUID.randomUUID())
+                    .title("Post " + i)
+                    .publishDate(LocalDate.of(2025, 1, 1).plusDays(i % 365))
+                    .status("IN_PROGRESS")
+                    .platforms(new ArrayList<>(List.of("FACEBOOK", "X")))
+                    .mediaType("IMAGE")
+                    .mediaUris(new ArrayList<>(List.of(i + "-a.jpg", i + "-b.jpg")))
+                    .changeVersion(i + 1)
+                    .user(user)
+                    .build());
+        }
+        postRepository.saveAll(posts);
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        statistics.clear();
+        StatementCounter.statements.clear();
+    }
+
+    @Test
+    void listingPostsDoesNotHydrateEntities() {
+        List<PostDto> result = postService.getAllPostsForUser(user);
+
+        assertEquals(POST_COUNT, result.size());
+        assertEquals(List.of("FACEBOOK", "X"), result.getFirst().getPlatforms());
+        assertEquals(2, result.getFirst().getMediaUris().size());
+
+        List<String> statements = StatementCounter.statements;
+        assertEquals(2, statements.size(), statements::toString);
+        assertTrue(statements.get(0).contains("FROM posts p"), statements.get(0));
+        assertTrue(statements.get(1).contains("FROM post_media_uris c"), statements.get(1));
+    }
+
+    @Test
+    void listingChangesUsesConstantNumberOfStatements() {
+        PostChangesDto result = postService.getChangesForUser(user, 0);
+
+        assertEquals(maxChangesLimit, result.getPosts().size());
+        assertEquals(2, result.getPosts().getFirst().getPlatforms().size());
+        assertEquals(2, result.getPosts().getFirst().getMediaUris().size());
+        // version, posts, tombstones, one media uri batch
+        assertEquals(4, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void checkingOwnershipOfManyPostsUsesOneStatement() {
+        Set<UUID> owned = postRepository.findAll().stream()
+                .limit(200)
+                .map(Post::getUuid)
+                .collect(Collectors.toSet());
+        statistics.clear();
+
+        postService.requireOwnedPosts(user, owned);
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+
+        Set<UUID> withForeign = new HashSet<>(owned);
+        withForeign.add(UUID.randomUUID());
+        assertThrows(NoSuchElementException.class, () -> postService.requireOwnedPosts(user, withForeign));
+    }
+
+    /** Records the SQL of every statement prepared on the test DataSource, whether it comes from Hibernate or JdbcTemplate. */
+    static class StatementCounter implements BeanPostProcessor {
+
+        static final List<String> statements = new CopyOnWriteArrayList<>();
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof DataSource dataSource)) {
+                return bean;
+            }
+            return new DelegatingDataSource(dataSource) {
+                @Override
+                public Connection getConnection() throws SQLException {
+                    return counting(super.getConnection());
+                }
+
+                @Override
+                public Connection getConnection(String username, String password) throws SQLException {
+                    return counting(super.getConnection(username, password));
+                }
+            };
+        }
+
+        private static Connection counting(Connection connection) {
+            return (Connection) Proxy.newProxyInstance(StatementCounter.class.getClassLoader(), new Class<?>[]{Connection.class}, (proxy, method, args) -> {
+                if (method.getName().equals("prepareStatement") || method.getName().equals("prepareCall")) {
+                    statements.add((String) args[0]);
+                } else if (method.getName().equals("createStatement")) {
+                    statements.add("<statement>");
+                }
+                try {
+                    return method.invoke(connection, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            });
+        }
+    }
+}
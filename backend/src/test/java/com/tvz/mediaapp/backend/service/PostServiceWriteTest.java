@@ -0,0 +1,123 @@
+package com.tvz.mediaapp.backend.service;
+
+import com.tvz.mediaapp.backend.exception.PostAlreadyExistsException;
+import com.tvz.mediaapp.backend.model.MediaUpload;
+import com.tvz.mediaapp.backend.model.Post;
+import com.tvz.mediaapp.backend.model.Role;
+import com.tvz.mediaapp.backend.model.StorageOutboxEntry;
+import com.tvz.mediaapp.backend.model.User;
+import com.tvz.mediaapp.backend.repository.MediaUploadRepository;
+import com.tvz.mediaapp.backend.repository.PostReadRepository;
+import com.tvz.mediaapp.backend.repository.PostRepository;
+import com.tvz.mediaapp.backend.repository.UserRepository;
+import com.tvz.mediaapp.dto.PostRequestDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false"
+})
+@Import({PostService.class, PostReadRepository.class, SimpleMeterRegistry.class})
+class PostServiceWriteTest {
+
+    @Autowired private PostService postService;
+    @Autowired private PostRepository postRepository;
+    @Autowired private MediaUploadRepository mediaUploadRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private EntityManager entityManager;
+
+    @MockitoBean private StorageOutboxService storageOutboxService;
+
+    private User owner;
+    private User other;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(User.builder().username("owner").email("owner@example.com").password("secret").role(Role.USER).build());
+        other = userRepository.save(User.builder().username("other").email("other@example.com").password("secret").role(Role.USER).build());
+    }
+
+    @Test
+    void creatingPostWithExistingUuidIsRejected() {
+        Post existing = postRepository.save(Post.builder()
+                .uuid(UUID.randomUUID())
+                .title("Owner's post")
+                .publishDate(LocalDate.of(2025, 1, 1))
+                .status("IN_PROGRESS")
+                .platforms(new ArrayList<>(List.of("X")))
+                .mediaType("NONE")
+                .mediaUris(new ArrayList<>())
+                .user(owner)
+                .changeVersion(1)
+                .build());
+        entityManager.flush();
+
+        PostRequestDto hijack = request(existing.getUuid(), "NONE", List.of(), false);
+        assertThrows(PostAlreadyExistsException.class, () -> postService.createPost(hijack, other));
+        assertThrows(PostAlreadyExistsException.class, () -> postService.createPost(hijack, owner));
+
+        entityManager.clear();
+        Post reloaded = postRepository.findByUuidAndUser(existing.getUuid(), owner).orElseThrow();
+        assertEquals("Owner's post", reloaded.getTitle());
+    }
+
+    @Test
+    void directUploadSkipsCommitOnlyForFilesReservedByTheAuthor() {
+        UUID postUuid = UUID.randomUUID();
+        reserve(owner, postUuid, "reserved.jpg");
+        reserve(other, postUuid, "foreign.jpg");
+        reserve(owner, UUID.randomUUID(), "elsewhere.jpg");
+
+        List<String> files = List.of("reserved.jpg", "foreign.jpg", "elsewhere.jpg");
+        postService.createPost(request(postUuid, "IMAGE", files, true), owner);
+
+        verify(storageOutboxService).enqueue(StorageOutboxEntry.Operation.COMMIT_MEDIA, postUuid, List.of("foreign.jpg", "elsewhere.jpg"));
+        verify(storageOutboxService).enqueue(StorageOutboxEntry.Operation.GENERATE_VARIANTS, postUuid, files);
+    }
+
+    @Test
+    void directUploadOfOnlyReservedFilesQueuesNoCommit() {
+        UUID postUuid = UUID.randomUUID();
+        reserve(owner, postUuid, "a.jpg");
+
+        postService.createPost(request(postUuid, "IMAGE", List.of("a.jpg"), true), owner);
+
+        verify(storageOutboxService, never()).enqueue(eq(StorageOutboxEntry.Operation.COMMIT_MEDIA), any(), any());
+    }
+
+    private void reserve(User user, UUID postUuid, String filename) {
+        mediaUploadRepository.save(MediaUpload.builder().postUuid(postUuid).filename(filename).userId(user.getId()).build());
+    }
+
+    private PostRequestDto request(UUID uuid, String mediaType, List<String> mediaUris, boolean directUpload) {
+        PostRequestDto dto = new PostRequestDto();
+        dto.setUuid(uuid.toString());
+        dto.setTitle("Post");
+        dto.setPublishDate("2025-01-01");
+        dto.setStatus("IN_PROGRESS");
+        dto.setPlatforms(List.of("X"));
+        dto.setMediaType(mediaType);
+        dto.setMediaUris(mediaUris);
+        dto.setDirectUpload(directUpload);
+        return dto;
+    }
+}
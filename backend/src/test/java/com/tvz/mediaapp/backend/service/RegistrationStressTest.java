@@ -0,0 +1,140 @@
+package com.tvz.mediaapp.backend.service;
+
+import com.tvz.mediaapp.backend.exception.UserAlreadyExistsException;
+import com.tvz.mediaapp.backend.repository.UserRepository;
+import com.tvz.mediaapp.dto.RegisterRequestDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=INFO",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "auth.password.bcrypt-strength=4"
+})
+@Import({AuthenticationService.class, PasswordHashingService.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class RegistrationStressTest {
+
+    private static final int CONTENDERS = 32;
+
+    @Autowired private AuthenticationService authenticationService;
+    @Autowired private UserRepository userRepository;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+
+    @MockitoBean private JwtService jwtService;
+    @MockitoBean private AuthenticationManager authenticationManager;
+    @MockitoBean private UserPrincipalService userPrincipalService;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void registersWithASingleStatementAndNamesTheConflictingField() {
+        authenticationService.register(request("alice", "alice@example.com"));
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        UserAlreadyExistsException username = assertThrows(UserAlreadyExistsException.class,
+                () -> authenticationService.register(request("alice", "other@example.com")));
+        UserAlreadyExistsException email = assertThrows(UserAlreadyExistsException.class,
+                () -> authenticationService.register(request("bob", "alice@example.com")));
+
+        assertTrue(username.getMessage().startsWith("Username is already taken"), username.getMessage());
+        assertTrue(email.getMessage().startsWith("Email is already in use"), email.getMessage());
+        assertEquals(1, userRepository.count());
+    }
+
+    @Test
+    void concurrentRegistrationsOfTheSameIdentityConflictCleanly() throws Exception {
+        List<RegisterRequestDto> requests = new ArrayList<>();
+        for (int i = 0; i < CONTENDERS; i++) {
+            // half race for the username, the other half for the email
+            requests.add(i % 2 == 0
+                    ? request("racer", "racer-" + i + "@example.com")
+                    : request("racer-" + i, "racer@example.com"));
+        }
+
+        List<Object> outcomes = registerConcurrently(requests);
+
+        int registered = 0;
+        for (int i = 0; i < CONTENDERS; i++) {
+            Object outcome = outcomes.get(i);
+            if (outcome instanceof UserAlreadyExistsException conflict) {
+                String expected = i % 2 == 0 ? "Username is already taken" : "Email is already in use";
+                assertTrue(conflict.getMessage().startsWith(expected), conflict.getMessage());
+            } else {
+                assertEquals("ok", outcome, "Unexpected outcome for request " + i);
+                registered++;
+            }
+        }
+        assertEquals(2, registered);
+        assertEquals(1, userRepository.findAll().stream().filter(user -> user.getUsername().equals("racer")).count());
+        assertEquals(1, userRepository.findAll().stream().filter(user -> user.getEmail().equals("racer@example.com")).count());
+    }
+
+    private List<Object> registerConcurrently(List<RegisterRequestDto> requests) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Object>> results = new ArrayList<>();
+        try (ExecutorService clients = Executors.newFixedThreadPool(requests.size())) {
+            for (RegisterRequestDto request : requests) {
+                results.add(clients.submit(() -> {
+                    start.await();
+                    try {
+                        authenticationService.register(request);
+                        return "ok";
+                    } catch (RuntimeException e) {
+                        return e;
+                    }
+                }));
+            }
+            start.countDown();
+        }
+        List<Object> outcomes = new ArrayList<>();
+        for (Future<Object> result : results) {
+            outcomes.add(result.get());
+        }
+        return outcomes;
+    }
+
+    private static RegisterRequestDto request(String username, String email) {
+        RegisterRequestDto request = new RegisterRequestDto();
+        request.setUsername(username);
+        request.setEmail(email);
+        request.setPassword("secret");
+        return request;
+    }
+}
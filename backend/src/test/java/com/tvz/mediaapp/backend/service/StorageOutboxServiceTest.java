@@ -0,0 +1,121 @@
+package com.tvz.mediaapp.backend.service;
+
+import com.tvz.mediaapp.backend.model.StorageOutboxEntry;
+import com.tvz.mediaapp.backend.repository.StorageOutboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest(properties = "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect")
+@Import({StorageOutboxService.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StorageOutboxServiceTest {
+
+    @Autowired private StorageOutboxService storageOutboxService;
+    @Autowired private StorageOutboxRepository storageOutboxRepository;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    @MockitoBean private StorageService storageService;
+    @MockitoBean private MediaVariantService mediaVariantService;
+
+    @AfterEach
+    void tearDown() {
+        storageOutboxRepository.deleteAll();
+    }
+
+    @Test
+    void dispatchesQueuedOperationAfterCommit() throws InterruptedException {
+        UUID postUuid = UUID.randomUUID();
+        when(storageService.movePendingFilesToPermanentLocation(postUuid, List.of("a.jpg")))
+                .thenReturn(new MediaCommitResult(List.of("a.jpg"), List.of(), Map.of()));
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                storageOutboxService.enqueue(StorageOutboxEntry.Operation.COMMIT_MEDIA, postUuid, List.of("a.jpg")));
+
+        verify(storageService, timeout(5000)).movePendingFilesToPermanentLocation(postUuid, List.of("a.jpg"));
+        for (int i = 0; i < 50 && storageOutboxRepository.count() > 0; i++) {
+            Thread.sleep(100);
+        }
+        assertEquals(0, storageOutboxRepository.count());
+    }
+
+    @Test
+    void retriesFailedFilesAndHoldsBackLaterOperationsOnSamePost() {
+        UUID postUuid = UUID.randomUUID();
+        UUID otherPostUuid = UUID.randomUUID();
+        StorageOutboxEntry commit = save(StorageOutboxEntry.Operation.COMMIT_MEDIA, postUuid, List.of("a.jpg", "b.jpg"));
+        StorageOutboxEntry delete = save(StorageOutboxEntry.Operation.DELETE_MEDIA, postUuid, List.of("c.jpg"));
+        save(StorageOutboxEntry.Operation.COMMIT_MEDIA, otherPostUuid, List.of("d.jpg"));
+        when(storageService.movePendingFilesToPermanentLocation(postUuid, List.of("a.jpg", "b.jpg")))
+                .thenReturn(new MediaCommitResult(List.of("a.jpg"), List.of(), Map.of("b.jpg", "SlowDown")));
+        when(storageService.movePendingFilesToPermanentLocation(otherPostUuid, List.of("d.jpg")))
+                .thenReturn(new MediaCommitResult(List.of("d.jpg"), List.of(), Map.of()));
+
+        storageOutboxService.dispatch();
+
+        StorageOutboxEntry retried = storageOutboxRepository.findById(commit.getId()).orElseThrow();
+        assertEquals(1, retried.getAttempts());
+        assertEquals(List.of("b.jpg"), retried.getFilenames());
+        assertTrue(retried.getNextAttemptAt().isAfter(LocalDateTime.now()));
+        assertEquals(0, storageOutboxRepository.findById(delete.getId()).orElseThrow().getAttempts());
+        verify(storageService, never()).deleteMediaObjects(any(), any());
+        assertEquals(2, storageOutboxRepository.count());
+    }
+
+    @Test
+    void postsInBackoffDoNotHoldBackDueEntriesOfOtherPosts() {
+        Object batchSize = ReflectionTestUtils.getField(storageOutboxService, "batchSize");
+        ReflectionTestUtils.setField(storageOutboxService, "batchSize", 2);
+        try {
+            for (int i = 0; i < 3; i++) {
+                StorageOutboxEntry waiting = save(StorageOutboxEntry.Operation.DELETE_MEDIA, UUID.randomUUID(), List.of(i + ".jpg"));
+                waiting.setNextAttemptAt(LocalDateTime.now().plusMinutes(5));
+                storageOutboxRepository.save(waiting);
+            }
+            UUID duePost = UUID.randomUUID();
+            save(StorageOutboxEntry.Operation.COMMIT_MEDIA, duePost, List.of("due.jpg"));
+            when(storageService.movePendingFilesToPermanentLocation(duePost, List.of("due.jpg")))
+                    .thenReturn(new MediaCommitResult(List.of("due.jpg"), List.of(), Map.of()));
+
+            storageOutboxService.dispatch();
+
+            verify(storageService).movePendingFilesToPermanentLocation(duePost, List.of("due.jpg"));
+            verify(storageService, never()).deleteMediaObjects(any(), any());
+            assertEquals(3, storageOutboxRepository.count());
+        } finally {
+            ReflectionTestUtils.setField(storageOutboxService, "batchSize", batchSize);
+        }
+    }
+
+    private StorageOutboxEntry save(StorageOutboxEntry.Operation operation, UUID postUuid, List<String> filenames) {
+        return storageOutboxRepository.save(StorageOutboxEntry.builder()
+                .postUuid(postUuid)
+                .operation(operation)
+                .filenames(filenames)
+                .status(StorageOutboxEntry.Status.PENDING)
+                .nextAttemptAt(LocalDateTime.now().minusSeconds(1))
+                .build());
+    }
+}
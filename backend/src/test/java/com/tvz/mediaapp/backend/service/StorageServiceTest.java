@@ -0,0 +1,280 @@
+package com.tvz.mediaapp.backend.service;
+
+import com.tvz.mediaapp.backend.storage.ObjectStore;
+import com.tvz.mediaapp.backend.storage.S3ObjectStore;
+import com.tvz.mediaapp.backend.support.LocalS3Server;
+import com.tvz.mediaapp.dto.MultipartUploadDto;
+import com.tvz.mediaapp.dto.MultipartUploadPartDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class StorageServiceTest {
+
+    private static final String BUCKET = "media";
+
+    private LocalS3Server s3;
+    private StorageService storageService;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        s3 = new LocalS3Server(BUCKET, Duration.ZERO);
+        meterRegistry = new SimpleMeterRegistry();
+        storageService = storageService(new S3ObjectStore(s3.syncClient(), s3.asyncClient(4), s3.presigner(), BUCKET));
+    }
+
+    private StorageService storageService(ObjectStore objectStore) {
+        StorageService storageService = new StorageService(objectStore, meterRegistry);
+        ReflectionTestUtils.setField(storageService, "expirationMinutes", 15L);
+        ReflectionTestUtils.setField(storageService, "presignedUrlCacheSize", 100);
+        ReflectionTestUtils.setField(storageService, "multipartPartSize", 1024L);
+        ReflectionTestUtils.setField(storageService, "multipartMaxParts", 10000);
+        ReflectionTestUtils.setField(storageService, "maxInFlightRequests", 4);
+        ReflectionTestUtils.setField(storageService, "deleteMaxAttempts", 3);
+        ReflectionTestUtils.setField(storageService, "deleteRetryBackoffMs", 1L);
+        ReflectionTestUtils.setField(storageService, "cleanupMaxAgeMs", Duration.ofHours(24).toMillis());
+        ReflectionTestUtils.setField(storageService, "cleanupPageSize", 10);
+        storageService.init();
+        return storageService;
+    }
+
+    @AfterEach
+    void tearDown() {
+        s3.close();
+    }
+
+    @Test
+    void reusesPresignedDownloadUrlsUntilObjectIsDeleted() {
+        String postUuid = UUID.randomUUID().toString();
+
+        Map<String, String> first = storageService.generatePreSignedDownloadUrls(postUuid, List.of("a.jpg", "b.jpg"));
+        Map<String, String> second = storageService.generatePreSignedDownloadUrls(postUuid, List.of("a.jpg", "b.jpg"));
+
+        assertEquals(first, second);
+        assertTrue(first.get("a.jpg").contains("/media/posts/" + postUuid + "/a.jpg"));
+        assertEquals(2, meterRegistry.counter("storage.presign.cache", "result", "hit").count());
+        assertEquals(2, meterRegistry.counter("storage.presign.cache", "result", "miss").count());
+
+        storageService.deleteMediaObjects(UUID.fromString(postUuid), List.of("a.jpg"));
+        storageService.generatePreSignedDownloadUrls(postUuid, List.of("a.jpg", "b.jpg"));
+
+        assertEquals(3, meterRegistry.counter("storage.presign.cache", "result", "hit").count());
+        assertEquals(3, meterRegistry.counter("storage.presign.cache", "result", "miss").count());
+    }
+
+    @Test
+    void fullPresignedUrlCacheEvictsOnlyTheLeastRecentlyUsedUrl() {
+        ReflectionTestUtils.setField(storageService, "presignedUrlCacheSize", 2);
+        String postUuid = UUID.randomUUID().toString();
+        Counter hits = meterRegistry.counter("storage.presign.cache", "result", "hit");
+
+        storageService.generatePreSignedDownloadUrls(postUuid, List.of("a.jpg", "b.jpg"));
+        storageService.generatePreSignedDownloadUrls(postUuid, List.of("a.jpg"));
+        storageService.generatePreSignedDownloadUrls(postUuid, List.of("c.jpg"));
+        assertEquals(1, hits.count());
+
+        storageService.generatePreSignedDownloadUrls(postUuid, List.of("a.jpg", "c.jpg"));
+        assertEquals(3, hits.count());
+        storageService.generatePreSignedDownloadUrls(postUuid, List.of("b.jpg"));
+        assertEquals(3, hits.count());
+    }
+
+    @Test
+    void presignsDirectUploadsUnderPostPrefix() {
+        UUID postUuid = UUID.randomUUID();
+
+        assertTrue(storageService.generatePreSignedUploadUrl(postUuid, "a.jpg").getPath().endsWith("/media/posts/" + postUuid + "/a.jpg"));
+        assertTrue(storageService.generatePreSignedUploadUrl(null, "a.jpg").getPath().endsWith("/uploads/pending/a.jpg"));
+        assertEquals(2, meterRegistry.counter("storage.presign.issued", "method", "put").count());
+    }
+
+    @Test
+    void rejectsFilenamesThatLeaveThePostPrefix() {
+        UUID postUuid = UUID.randomUUID();
+
+        for (String filename : List.of("../" + UUID.randomUUID() + "/photo.jpg", "a/b.jpg", "a\\b.jpg", "..", ".", "")) {
+            assertThrows(IllegalArgumentException.class, () -> storageService.generatePreSignedUploadUrl(postUuid, filename), filename);
+            assertThrows(IllegalArgumentException.class, () -> storageService.deleteMediaObjects(postUuid, List.of(filename)), filename);
+            assertThrows(IllegalArgumentException.class, () -> storageService.movePendingFilesToPermanentLocation(postUuid, List.of(filename)), filename);
+        }
+        assertEquals("", storageService.generatePreSignedDownloadUrls(postUuid.toString(), List.of("../x/a.jpg")).get("../x/a.jpg"));
+    }
+
+    @Test
+    void assemblesMultipartUploadFromPresignedParts() throws Exception {
+        byte[] content = new byte[2500];
+        new Random(42).nextBytes(content);
+
+        MultipartUploadDto upload = storageService.createMultipartUpload(null, "video.mp4", "video/mp4", content.length);
+        assertEquals(1024, upload.getPartSize());
+        assertEquals(3, upload.getParts().size());
+
+        HttpClient httpClient = HttpClient.newHttpClient();
+        List<MultipartUploadPartDto> uploaded = new ArrayList<>();
+        for (MultipartUploadPartDto part : upload.getParts().reversed()) {
+            int from = (int) ((part.getPartNumber() - 1) * upload.getPartSize());
+            int to = (int) Math.min(from + upload.getPartSize(), content.length);
+            HttpResponse<Void> response = httpClient.send(HttpRequest.newBuilder(URI.create(part.getUrl()))
+                    .PUT(HttpRequest.BodyPublishers.ofByteArray(content, from, to - from))
+                    .build(), HttpResponse.BodyHandlers.discarding());
+            assertEquals(200, response.statusCode());
+            uploaded.add(new MultipartUploadPartDto(part.getPartNumber(), null, response.headers().firstValue("ETag").orElseThrow()));
+        }
+        storageService.completeMultipartUpload(null, "video.mp4", upload.getUploadId(), uploaded);
+
+        assertArrayEquals(content, s3.objects().get("uploads/pending/video.mp4"));
+        assertTrue(s3.multipartUploads().isEmpty());
+        assertEquals(3, meterRegistry.counter("storage.presign.issued", "method", "upload_part").count());
+        assertEquals(1, storageRequests("multipart_create", "success"));
+        assertEquals(1, storageRequests("multipart_complete", "success"));
+    }
+
+    @Test
+    void abortsOnlyStaleMultipartUploads() {
+        storageService.createMultipartUpload(null, "video.mp4", "video/mp4", 10);
+
+        assertEquals(0, storageService.abortStaleMultipartUploads());
+        assertEquals(1, s3.multipartUploads().size());
+
+        ReflectionTestUtils.setField(storageService, "cleanupMaxAgeMs", -Duration.ofHours(1).toMillis());
+        assertEquals(1, storageService.abortStaleMultipartUploads());
+        assertTrue(s3.multipartUploads().isEmpty());
+    }
+
+    @Test
+    void movesPendingFilesAndReportsMissingOnesPerFile() {
+        UUID postUuid = UUID.randomUUID();
+        s3.objects().put("uploads/pending/a.jpg", new byte[]{1});
+        s3.objects().put("uploads/pending/a_thumb.jpg", new byte[]{2});
+        s3.objects().put("uploads/pending/b.mp4", new byte[]{3});
+
+        MediaCommitResult result = storageService.movePendingFilesToPermanentLocation(postUuid, List.of("a.jpg", "b.mp4", "c.png"));
+
+        assertEquals(List.of("a.jpg", "b.mp4"), result.committed());
+        assertEquals(List.of("c.png"), result.missing());
+        assertTrue(result.failed().isEmpty());
+        String prefix = "media/posts/" + postUuid + "/";
+        assertEquals(Set.of(prefix + "a.jpg", prefix + "a_thumb.jpg", prefix + "b.mp4"), s3.objects().keySet());
+        assertEquals(3, storageRequests("move", "success"));
+        assertEquals(3, storageRequests("move", "not_found"));
+        assertEquals(1, storageRequests("delete", "success"));
+    }
+
+    @Test
+    void requestsRejectedBeforeSendingReleaseTheirInFlightPermit() {
+        ObjectStore objectStore = mock(ObjectStore.class);
+        when(objectStore.move(any(), any())).thenThrow(new RejectedExecutionException("client closed"));
+        when(objectStore.delete(any())).thenThrow(new RejectedExecutionException("client closed"));
+        StorageService rejecting = storageService(objectStore);
+        UUID postUuid = UUID.randomUUID();
+        List<String> filenames = List.of("a.jpg", "b.jpg", "c.jpg", "d.jpg", "e.jpg");
+
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            MediaCommitResult result = rejecting.movePendingFilesToPermanentLocation(postUuid, filenames);
+            assertEquals(Set.copyOf(filenames), result.failed().keySet());
+            assertFalse(rejecting.deleteMediaObjects(postUuid, filenames).isEmpty());
+            assertEquals(filenames.size(), rejecting.movePendingFilesToPermanentLocation(postUuid, filenames).failed().size());
+        });
+        assertEquals(4, ((Semaphore) ReflectionTestUtils.getField(rejecting, "inFlightRequests")).availablePermits());
+    }
+
+    @Test
+    void deletesAllMediaOfPostInSingleRequest() {
+        UUID postUuid = UUID.randomUUID();
+        List<String> filenames = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            filenames.add(i + ".jpg");
+            s3.objects().put("media/posts/" + postUuid + "/" + i + ".jpg", new byte[]{1});
+            s3.objects().put("media/posts/" + postUuid + "/" + i + "_thumb.jpg", new byte[]{1});
+        }
+
+        storageService.deleteMediaObjects(postUuid, filenames);
+
+        assertTrue(s3.objects().isEmpty());
+        assertEquals(1, s3.requestCount());
+    }
+
+    @Test
+    void retriesKeysThatFailedToDelete() {
+        UUID postUuid = UUID.randomUUID();
+        String failingKey = "media/posts/" + postUuid + "/b.jpg";
+        s3.objects().put("media/posts/" + postUuid + "/a.jpg", new byte[]{1});
+        s3.objects().put(failingKey, new byte[]{1});
+        s3.failDeletes(failingKey, 2);
+
+        Map<String, String> failed = storageService.deleteMediaObjects(postUuid, List.of("a.jpg", "b.jpg"));
+
+        assertTrue(failed.isEmpty());
+        assertTrue(s3.objects().isEmpty());
+        assertEquals(3, s3.requestCount());
+    }
+
+    @Test
+    void sweepsPendingUploadsPageByPageAndResumesFromCheckpoint() {
+        Instant stale = Instant.now().minus(Duration.ofDays(2));
+        for (int i = 0; i < 25; i++) {
+            s3.putObject("uploads/pending/stale-" + i + ".jpg", stale);
+        }
+        for (int i = 0; i < 5; i++) {
+            s3.putObject("uploads/pending/fresh-" + i + ".jpg", Instant.now());
+        }
+        ReflectionTestUtils.setField(storageService, "cleanupTimeBudgetMs", 0L);
+
+        PendingUploadSweepResult first = storageService.cleanupPendingUploads();
+        assertFalse(first.completed());
+        assertEquals(10, first.scanned());
+
+        long scanned = first.scanned();
+        long deleted = first.deleted();
+        PendingUploadSweepResult next;
+        do {
+            next = storageService.cleanupPendingUploads();
+            scanned += next.scanned();
+            deleted += next.deleted();
+        } while (!next.completed());
+
+        assertEquals(30, scanned);
+        assertEquals(25, deleted);
+        assertEquals(5, s3.objects().size());
+        assertTrue(s3.objects().keySet().stream().allMatch(key -> key.contains("fresh")));
+
+        long partialSweeps = meterRegistry.timer("storage.cleanup.sweep", "outcome", "budget_exhausted").count();
+        assertEquals(1, meterRegistry.timer("storage.cleanup.sweep", "outcome", "completed").count());
+        assertEquals(partialSweeps + 1, storageRequests("list", "success"));
+        assertEquals(30, meterRegistry.counter("storage.cleanup.scanned").count());
+    }
+
+    private long storageRequests(String operation, String outcome) {
+        // no request is bound in these tests, so every call is attributed to no endpoint
+        return meterRegistry.timer("storage.requests", "operation", operation, "uri", "none", "outcome", outcome).count();
+    }
+}
@@ -0,0 +1,159 @@
+package com.tvz.mediaapp.backend.storage;
+
+import com.tvz.mediaapp.backend.exception.InvalidSignatureException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.net.URL;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LocalObjectStoreTest {
+
+    @TempDir
+    private Path root;
+
+    private LocalObjectStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new LocalObjectStore(root, "http://localhost:8080/api/files/", "test-signing-key", 2, false);
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.shutdown();
+    }
+
+    @Test
+    void movesCopiesAndDeletesObjects() throws Exception {
+        store.put("uploads/pending/a.jpg", new byte[]{1, 2, 3}, "image/jpeg");
+
+        store.move("uploads/pending/a.jpg", "media/posts/p/a.jpg").join();
+        store.copy("media/posts/p/a.jpg", "media/posts/p/b.jpg").join();
+
+        assertFalse(Files.exists(root.resolve("uploads/pending/a.jpg")));
+        Path target = Files.createTempFile(root, "download", null);
+        store.get("media/posts/p/b.jpg", target);
+        assertArrayEquals(new byte[]{1, 2, 3}, Files.readAllBytes(target));
+
+        CompletionException missing = assertThrows(CompletionException.class,
+                () -> store.move("uploads/pending/a.jpg", "media/posts/p/a.jpg").join());
+        assertInstanceOf(NoSuchElementException.class, missing.getCause());
+
+        assertTrue(store.delete(List.of("media/posts/p/a.jpg", "media/posts/p/b.jpg", "media/posts/p/gone.jpg")).join().isEmpty());
+        assertThrows(NoSuchElementException.class, () -> store.get("media/posts/p/a.jpg", target));
+    }
+
+    @Test
+    void listsKeysInOrderAcrossPages() {
+        for (String name : List.of("c.jpg", "a.jpg", "b.jpg")) {
+            store.put("uploads/pending/" + name, new byte[]{1}, "image/jpeg");
+        }
+        store.put("media/posts/p/x.jpg", new byte[]{1}, "image/jpeg");
+
+        ObjectStore.ObjectListing first = store.list("uploads/pending/", null, 2);
+        ObjectStore.ObjectListing second = store.list("uploads/pending/", first.objects().getLast().key(), 2);
+
+        assertEquals(List.of("uploads/pending/a.jpg", "uploads/pending/b.jpg"), keys(first));
+        assertTrue(first.truncated());
+        assertEquals(List.of("uploads/pending/c.jpg"), keys(second));
+        assertFalse(second.truncated());
+    }
+
+    @Test
+    void assemblesMultipartUploadFromParts() throws Exception {
+        String key = "media/posts/p/video.mp4";
+        String uploadId = store.createMultipartUpload(key, "video/mp4");
+        String etag2 = store.writePart(key, uploadId, 2, new ByteArrayInputStream(new byte[]{3, 4}));
+        String etag1 = store.writePart(key, uploadId, 1, new ByteArrayInputStream(new byte[]{1, 2}));
+        assertEquals(1, store.listMultipartUploads("media/").size());
+
+        assertThrows(IllegalArgumentException.class, () -> store.completeMultipartUpload(key, uploadId,
+                List.of(new ObjectStore.UploadedPart(1, "\"wrong\""), new ObjectStore.UploadedPart(2, etag2))));
+        store.completeMultipartUpload(key, uploadId,
+                List.of(new ObjectStore.UploadedPart(2, etag2), new ObjectStore.UploadedPart(1, etag1)));
+
+        assertArrayEquals(new byte[]{1, 2, 3, 4}, Files.readAllBytes(store.resolveExisting(key)));
+        assertTrue(store.listMultipartUploads("").isEmpty());
+        assertTrue(store.list("media/", null, 10).objects().stream().noneMatch(object -> object.key().contains(".tmp-")));
+    }
+
+    @Test
+    void signedUrlsOnlyAuthorizeTheSignedRequest() throws Exception {
+        URL url = store.presignUploadPart("media/posts/p/my video.mp4", "upload-1", 3, Duration.ofMinutes(5));
+        Map<String, String> query = query(url);
+        assertEquals("/api/files/media/posts/p/my%20video.mp4", url.getPath());
+
+        long expires = Long.parseLong(query.get("expires"));
+        store.verify("PUT", "media/posts/p/my video.mp4", "upload-1", 3, expires, query.get("signature"));
+
+        assertThrows(InvalidSignatureException.class,
+                () -> store.verify("PUT", "media/posts/p/my video.mp4", "upload-1", 4, expires, query.get("signature")));
+        assertThrows(InvalidSignatureException.class,
+                () -> store.verify("GET", "media/posts/p/my video.mp4", "upload-1", 3, expires, query.get("signature")));
+        assertThrows(InvalidSignatureException.class,
+                () -> store.verify("PUT", "media/posts/p/my video.mp4", "upload-1", 3, expires + 60, query.get("signature")));
+
+        URL expired = store.presignGet("media/posts/p/a.jpg", Duration.ofSeconds(-10));
+        Map<String, String> expiredQuery = query(expired);
+        assertThrows(InvalidSignatureException.class, () -> store.verify("GET", "media/posts/p/a.jpg", null, null,
+                Long.parseLong(expiredQuery.get("expires")), expiredQuery.get("signature")));
+    }
+
+    @Test
+    void rejectsKeysOutsideTheRoot() {
+        assertThrows(IllegalArgumentException.class, () -> store.put("../escape.jpg", new byte[]{1}, "image/jpeg"));
+        assertThrows(IllegalArgumentException.class, () -> store.put(".multipart/x/key", new byte[]{1}, "text/plain"));
+        assertThrows(IllegalArgumentException.class, () -> store.presignGet("media/../../etc/passwd", Duration.ofMinutes(1)));
+    }
+
+    @Test
+    void rejectsKeysThatStepIntoAnotherPrefix() throws Exception {
+        store.put("media/posts/victim/photo.jpg", new byte[]{1}, "image/jpeg");
+        Path target = Files.createTempFile(root, "download", null);
+
+        for (String key : List.of("media/posts/own/../victim/photo.jpg", "media/posts/own/./photo.jpg",
+                "media/posts//victim/photo.jpg", "/media/posts/victim/photo.jpg", "media/posts/victim/")) {
+            assertThrows(IllegalArgumentException.class, () -> store.get(key, target), key);
+            assertThrows(IllegalArgumentException.class, () -> store.presignGet(key, Duration.ofMinutes(1)), key);
+            assertThrows(IllegalArgumentException.class, () -> store.createMultipartUpload(key, "image/jpeg"), key);
+            CompletionException move = assertThrows(CompletionException.class,
+                    () -> store.move(key, "media/posts/own/stolen.jpg").join(), key);
+            assertInstanceOf(IllegalArgumentException.class, move.getCause());
+            assertTrue(store.delete(List.of(key)).join().containsKey(key), key);
+        }
+        assertTrue(Files.exists(root.resolve("media/posts/victim/photo.jpg")));
+    }
+
+    private static List<String> keys(ObjectStore.ObjectListing listing) {
+        return listing.objects().stream().map(ObjectStore.StoredObject::key).toList();
+    }
+
+    private static Map<String, String> query(URL url) {
+        Map<String, String> params = new HashMap<>();
+        for (String param : url.getQuery().split("&")) {
+            String[] pair = param.split("=", 2);
+            params.put(pair[0], URLDecoder.decode(pair[1], StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+}
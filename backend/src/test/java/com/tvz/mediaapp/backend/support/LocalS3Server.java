@@ -0,0 +1,363 @@
+package com.tvz.mediaapp.backend.support;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
+import software.amazon.awssdk.http.urlconnection.UrlConnectionHttpClient;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3Configuration;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory, path-style S3 stand-in covering the calls StorageService makes,
+ * with a fixed per-request latency to mimic a network round trip.
+ */
+public class LocalS3Server implements AutoCloseable {
+
+    private static final Pattern DELETE_KEY = Pattern.compile("<Key>(.*?)</Key>");
+    private static final Pattern PART_NUMBER = Pattern.compile("<PartNumber>(\\d+)</PartNumber>");
+
+    static {
+        // without this, Nagle + delayed ACK add ~40 ms to every small response
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final String bucket;
+    private final Duration latency;
+    private final Map<String, byte[]> objects = new ConcurrentHashMap<>();
+    private final Map<String, Instant> lastModified = new ConcurrentHashMap<>();
+    private final Map<String, Integer> failingDeletes = new ConcurrentHashMap<>();
+    private final Map<String, MultipartUpload> multipartUploads = new ConcurrentHashMap<>();
+    private final Map<String, Integer> failingPartUploads = new ConcurrentHashMap<>();
+    private final AtomicInteger requestCount = new AtomicInteger();
+
+    public LocalS3Server(String bucket, Duration latency) throws IOException {
+        this.bucket = bucket;
+        this.latency = latency;
+        this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        this.server.createContext("/", this::handle);
+        this.server.setExecutor(executor);
+        this.server.start();
+    }
+
+    public URI endpoint() {
+        return URI.create("http://localhost:" + server.getAddress().getPort());
+    }
+
+    public S3Client syncClient() {
+        return S3Client.builder()
+                .endpointOverride(endpoint())
+                .forcePathStyle(true)
+                .region(Region.US_EAST_1)
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("test", "test")))
+                .httpClient(UrlConnectionHttpClient.create())
+                .build();
+    }
+
+    public S3AsyncClient asyncClient(int maxConcurrency) {
+        return S3AsyncClient.builder()
+                .endpointOverride(endpoint())
+                .forcePathStyle(true)
+                .region(Region.US_EAST_1)
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("test", "test")))
+                .httpClientBuilder(NettyNioAsyncHttpClient.builder().maxConcurrency(maxConcurrency))
+                .build();
+    }
+
+    public S3Presigner presigner() {
+        return S3Presigner.builder()
+                .endpointOverride(endpoint())
+                .serviceConfiguration(S3Configuration.builder().pathStyleAccessEnabled(true).build())
+                .region(Region.US_EAST_1)
+                .credentialsProvider(StaticCredentialsProvider.create(AwsBasicCredentials.create("test", "test")))
+                .build();
+    }
+
+    public Map<String, byte[]> objects() {
+        return objects;
+    }
+
+    public void putObject(String key, Instant modifiedAt) {
+        objects.put(key, new byte[]{1});
+        lastModified.put(key, modifiedAt);
+    }
+
+    public void failDeletes(String key, int times) {
+        failingDeletes.put(key, times);
+    }
+
+    public Map<String, MultipartUpload> multipartUploads() {
+        return multipartUploads;
+    }
+
+    public void failPartUploads(int partNumber, int times) {
+        failingPartUploads.put(String.valueOf(partNumber), times);
+    }
+
+    public int requestCount() {
+        return requestCount.get();
+    }
+
+    public void resetRequestCount() {
+        requestCount.set(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requestCount.incrementAndGet();
+        try {
+            Thread.sleep(latency.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        try (exchange) {
+            String key = objectKey(exchange);
+            String query = exchange.getRequestURI().getRawQuery();
+            Map<String, String> params = queryParameters(query);
+            byte[] body = exchange.getRequestBody().readAllBytes();
+
+            switch (exchange.getRequestMethod()) {
+                case "PUT" -> {
+                    if (params.containsKey("uploadId")) {
+                        uploadPart(exchange, params, body);
+                        return;
+                    }
+                    String copySource = exchange.getRequestHeaders().getFirst("x-amz-copy-source");
+                    if (copySource == null) {
+                        objects.put(key, body);
+                        respond(exchange, 200, "");
+                        return;
+                    }
+                    String sourceKey = URLDecoder.decode(copySource, StandardCharsets.UTF_8)
+                            .replaceFirst("^/?" + Pattern.quote(bucket) + "/", "");
+                    byte[] source = objects.get(sourceKey);
+                    if (source == null) {
+                        respond(exchange, 404, error("NoSuchKey", sourceKey));
+                        return;
+                    }
+                    objects.put(key, source);
+                    respond(exchange, 200, """
+                            <CopyObjectResult><ETag>"etag"</ETag><LastModified>2025-01-01T00:00:00.000Z</LastModified></CopyObjectResult>""");
+                }
+                case "DELETE" -> {
+                    if (params.containsKey("uploadId")) {
+                        multipartUploads.remove(params.get("uploadId"));
+                        exchange.sendResponseHeaders(204, -1);
+                        return;
+                    }
+                    objects.remove(key);
+                    exchange.sendResponseHeaders(204, -1);
+                }
+                case "POST" -> {
+                    if (params.containsKey("uploads")) {
+                        String uploadId = UUID.randomUUID().toString();
+                        multipartUploads.put(uploadId, new MultipartUpload(key, Instant.now()));
+                        respond(exchange, 200, "<InitiateMultipartUploadResult><Bucket>" + bucket + "</Bucket><Key>" + key
+                                + "</Key><UploadId>" + uploadId + "</UploadId></InitiateMultipartUploadResult>");
+                        return;
+                    }
+                    if (params.containsKey("uploadId")) {
+                        completeMultipartUpload(exchange, key, params.get("uploadId"), body);
+                        return;
+                    }
+                    if (!params.containsKey("delete")) {
+                        respond(exchange, 400, error("InvalidRequest", key));
+                        return;
+                    }
+                    StringBuilder result = new StringBuilder("<DeleteResult>");
+                    Matcher matcher = DELETE_KEY.matcher(new String(body, StandardCharsets.UTF_8));
+                    while (matcher.find()) {
+                        String deleteKey = matcher.group(1);
+                        if (shouldFail(failingDeletes, deleteKey)) {
+                            result.append("<Error><Key>").append(deleteKey)
+                                    .append("</Key><Code>InternalError</Code><Message>Injected failure</Message></Error>");
+                        } else {
+                            objects.remove(deleteKey);
+                        }
+                    }
+                    respond(exchange, 200, result.append("</DeleteResult>").toString());
+                }
+                case "GET" -> {
+                    if (!key.isEmpty()) {
+                        respond(exchange, 405, error("MethodNotAllowed", key));
+                        return;
+                    }
+                    respond(exchange, 200, params.containsKey("uploads") ? listMultipartUploads() : listObjects(params));
+                }
+                default -> respond(exchange, 405, error("MethodNotAllowed", key));
+            }
+        }
+    }
+
+    private void uploadPart(HttpExchange exchange, Map<String, String> params, byte[] body) throws IOException {
+        MultipartUpload upload = multipartUploads.get(params.get("uploadId"));
+        if (upload == null) {
+            respond(exchange, 404, error("NoSuchUpload", params.get("uploadId")));
+            return;
+        }
+        String partNumber = params.get("partNumber");
+        if (shouldFail(failingPartUploads, partNumber)) {
+            respond(exchange, 500, error("InternalError", partNumber));
+            return;
+        }
+        upload.parts.put(Integer.parseInt(partNumber), body);
+        exchange.getResponseHeaders().add("ETag", "\"part-" + partNumber + "\"");
+        exchange.sendResponseHeaders(200, -1);
+    }
+
+    private void completeMultipartUpload(HttpExchange exchange, String key, String uploadId, byte[] body) throws IOException {
+        MultipartUpload upload = multipartUploads.remove(uploadId);
+        if (upload == null) {
+            respond(exchange, 404, error("NoSuchUpload", uploadId));
+            return;
+        }
+        ByteArrayOutputStream object = new ByteArrayOutputStream();
+        Matcher matcher = PART_NUMBER.matcher(new String(body, StandardCharsets.UTF_8));
+        while (matcher.find()) {
+            byte[] part = upload.parts.get(Integer.parseInt(matcher.group(1)));
+            if (part == null) {
+                respond(exchange, 400, error("InvalidPart", matcher.group(1)));
+                return;
+            }
+            object.write(part);
+        }
+        objects.put(key, object.toByteArray());
+        respond(exchange, 200, "<CompleteMultipartUploadResult><Bucket>" + bucket + "</Bucket><Key>" + key
+                + "</Key><ETag>\"etag\"</ETag></CompleteMultipartUploadResult>");
+    }
+
+    private String listMultipartUploads() {
+        StringBuilder xml = new StringBuilder("<ListMultipartUploadsResult>")
+                .append("<Bucket>").append(bucket).append("</Bucket>")
+                .append("<IsTruncated>false</IsTruncated>");
+        multipartUploads.forEach((uploadId, upload) -> xml.append("<Upload><Key>").append(upload.key).append("</Key>")
+                .append("<UploadId>").append(uploadId).append("</UploadId>")
+                .append("<Initiated>").append(upload.initiated).append("</Initiated></Upload>"));
+        return xml.append("</ListMultipartUploadsResult>").toString();
+    }
+
+    private String listObjects(Map<String, String> params) {
+        String prefix = params.getOrDefault("prefix", "");
+        String after = params.containsKey("continuation-token") ? params.get("continuation-token") : params.get("start-after");
+        int maxKeys = Integer.parseInt(params.getOrDefault("max-keys", "1000"));
+
+        List<String> keys = new TreeSet<>(objects.keySet()).stream()
+                .filter(key -> key.startsWith(prefix))
+                .filter(key -> after == null || key.compareTo(after) > 0)
+                .toList();
+        List<String> page = keys.subList(0, Math.min(maxKeys, keys.size()));
+        boolean truncated = keys.size() > page.size();
+
+        StringBuilder xml = new StringBuilder("<ListBucketResult>")
+                .append("<Name>").append(bucket).append("</Name>")
+                .append("<Prefix>").append(prefix).append("</Prefix>")
+                .append("<KeyCount>").append(page.size()).append("</KeyCount>")
+                .append("<MaxKeys>").append(maxKeys).append("</MaxKeys>")
+                .append("<IsTruncated>").append(truncated).append("</IsTruncated>");
+        if (truncated) {
+            xml.append("<NextContinuationToken>").append(page.getLast()).append("</NextContinuationToken>");
+        }
+        for (String key : page) {
+            xml.append("<Contents><Key>").append(key).append("</Key>")
+                    .append("<LastModified>").append(lastModified.getOrDefault(key, Instant.now())).append("</LastModified>")
+                    .append("<Size>").append(objects.getOrDefault(key, new byte[0]).length).append("</Size></Contents>");
+        }
+        return xml.append("</ListBucketResult>").toString();
+    }
+
+    private static Map<String, String> queryParameters(String query) {
+        Map<String, String> params = new HashMap<>();
+        if (query != null) {
+            for (String pair : query.split("&")) {
+                int separator = pair.indexOf('=');
+                String name = URLDecoder.decode(separator < 0 ? pair : pair.substring(0, separator), StandardCharsets.UTF_8);
+                String value = separator < 0 ? "" : URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8);
+                params.put(name, value);
+            }
+        }
+        return params;
+    }
+
+    private static synchronized boolean shouldFail(Map<String, Integer> failures, String key) {
+        Integer remaining = failures.get(key);
+        if (remaining == null) {
+            return false;
+        }
+        if (remaining <= 1) {
+            failures.remove(key);
+        } else {
+            failures.put(key, remaining - 1);
+        }
+        return true;
+    }
+
+    private String objectKey(HttpExchange exchange) {
+        String path = exchange.getRequestURI().getPath();
+        String prefix = "/" + bucket + "/";
+        return path.startsWith(prefix) ? path.substring(prefix.length()) : "";
+    }
+
+    private static String error(String code, String key) {
+        return "<Error><Code>" + code + "</Code><Message>" + code + "</Message><Key>" + key + "</Key></Error>";
+    }
+
+    private static void respond(HttpExchange exchange, int status, String xml) throws IOException {
+        byte[] bytes = xml.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/xml");
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        if (bytes.length > 0) {
+            exchange.getResponseBody().write(bytes);
+        }
+    }
+
+    public static final class MultipartUpload {
+        private final String key;
+        private final Instant initiated;
+        private final Map<Integer, byte[]> parts = new ConcurrentHashMap<>();
+
+        private MultipartUpload(String key, Instant initiated) {
+            this.key = key;
+            this.initiated = initiated;
+        }
+
+        public String key() {
+            return key;
+        }
+
+        public Map<Integer, byte[]> parts() {
+            return parts;
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,155 @@
+package com.tvz.mediaapp.backend.controller;
+
+import com.tvz.mediaapp.backend.exception.GlobalExceptionHandler;
+import com.tvz.mediaapp.backend.storage.LocalObjectStore;
+import com.tvz.mediaapp.benchmarks.BackendContexts;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local storage downloads through {@code LocalStorageController} over real HTTP from 8 concurrent clients, with Tomcat's
+ * sendfile on and off. Each operation is one request: a full 256 MiB file, a random 1 MiB range of it, or one of 500
+ * 64 KiB files. Multiply ops/s by those sizes for MiB/s.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(8)
+@Fork(1)
+public class MediaStreamBenchmark {
+
+    private static final int LARGE_FILE_BYTES = 256 * 1024 * 1024;
+    private static final int SMALL_FILE_BYTES = 64 * 1024;
+    private static final int SMALL_FILE_COUNT = 500;
+    private static final int RANGE_BYTES = 1024 * 1024;
+    private static final String LARGE_KEY = "media/posts/benchmark/large.mp4";
+
+    @Param({"true", "false"})
+    private boolean sendfile;
+
+    private Path root;
+    private ConfigurableApplicationContext context;
+    private LocalObjectStore store;
+    private int port;
+    private final AtomicInteger nextSmallFile = new AtomicInteger();
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    @Setup
+    public void setUp() throws IOException {
+        root = Files.createTempDirectory("media-stream-benchmark");
+        context = BackendContexts.web(List.of(LocalObjectStore.class, LocalStorageController.class, GlobalExceptionHandler.class, Sendfile.class),
+                "storage.backend=local",
+                "storage.local.root=" + root,
+                "storage.local.base-url=http://localhost/api/files",
+                "storage.local.signing-key=benchmark",
+                "storage.local.io-threads=2",
+                "benchmark.sendfile=" + sendfile);
+        store = context.getBean(LocalObjectStore.class);
+        port = BackendContexts.port(context);
+
+        writeRandom(LARGE_KEY, LARGE_FILE_BYTES);
+        for (int i = 0; i < SMALL_FILE_COUNT; i++) {
+            writeRandom(smallKey(i), SMALL_FILE_BYTES);
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        context.close();
+        FileSystemUtils.deleteRecursively(root);
+    }
+
+    @Benchmark
+    public long largeFile() throws Exception {
+        return fetch(LARGE_KEY, null, LARGE_FILE_BYTES);
+    }
+
+    @Benchmark
+    public long largeFileRange() throws Exception {
+        long start = ThreadLocalRandom.current().nextLong(LARGE_FILE_BYTES - RANGE_BYTES);
+        return fetch(LARGE_KEY, "bytes=" + start + "-" + (start + RANGE_BYTES - 1), RANGE_BYTES);
+    }
+
+    @Benchmark
+    public long smallFile() throws Exception {
+        return fetch(smallKey(nextSmallFile.getAndIncrement() % SMALL_FILE_COUNT), null, SMALL_FILE_BYTES);
+    }
+
+    private long fetch(String key, String range, long expectedBytes) throws Exception {
+        URI signed = store.presignGet(key, Duration.ofMinutes(30)).toURI();
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create("http://localhost:" + port + signed.getRawPath() + "?" + signed.getRawQuery()));
+        if (range != null) {
+            builder.header("Range", range);
+        }
+        HttpResponse<InputStream> response = client.send(builder.build(), HttpResponse.BodyHandlers.ofInputStream());
+        long read;
+        try (InputStream body = response.body()) {
+            read = body.transferTo(OutputStream.nullOutputStream());
+        }
+        if (response.statusCode() != (range != null ? 206 : 200) || read != expectedBytes) {
+            throw new IllegalStateException("GET " + key + " returned " + response.statusCode() + " with " + read + " bytes");
+        }
+        return read;
+    }
+
+    private void writeRandom(String key, int size) throws IOException {
+        byte[] chunk = new byte[Math.min(size, 1024 * 1024)];
+        ThreadLocalRandom.current().nextBytes(chunk);
+        try (InputStream in = new SequenceInputStream(Collections.enumeration(
+                Collections.nCopies(size / chunk.length, chunk).stream()
+                        .<InputStream>map(ByteArrayInputStream::new).toList()))) {
+            store.write(key, in);
+        }
+    }
+
+    private static String smallKey(int index) {
+        return "media/posts/benchmark/small-" + index + ".jpg";
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    static class Sendfile {
+
+        @Bean
+        WebServerFactoryCustomizer<TomcatServletWebServerFactory> sendfileToggle(@Value("${benchmark.sendfile}") String enabled) {
+            return factory -> factory.addConnectorCustomizers(connector -> connector.setProperty("useSendfile", enabled));
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.tvz.mediaapp.backend.controller;
+
+import com.tvz.mediaapp.backend.exception.GlobalExceptionHandler;
+import com.tvz.mediaapp.backend.service.MediaUploadService;
+import com.tvz.mediaapp.backend.service.MediaVariantService;
+import com.tvz.mediaapp.backend.service.PostService;
+import com.tvz.mediaapp.backend.service.StorageService;
+import com.tvz.mediaapp.backend.storage.ObjectStore;
+import com.tvz.mediaapp.benchmarks.BackendContexts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 500 concurrent clients against an endpoint whose only work is one blocking storage round trip of 1 s, served on
+ * Tomcat's platform thread pool versus virtual threads. Sample mode reports the latency percentiles; throughput is
+ * the client count divided by the mean.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1, time = 10)
+@Measurement(iterations = 2, time = 10)
+@Threads(500)
+@Fork(1)
+public class VirtualThreadLoadBenchmark {
+
+    private static final Duration S3_ROUND_TRIP = Duration.ofSeconds(1);
+
+    @Param({"false", "true"})
+    private boolean virtualThreads;
+
+    private ConfigurableApplicationContext context;
+    private HttpRequest abort;
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    @Setup
+    public void setUp() {
+        context = BackendContexts.web(List.of(MediaController.class, StorageService.class, GlobalExceptionHandler.class, SlowStorage.class),
+                "spring.threads.virtual.enabled=" + virtualThreads);
+        abort = HttpRequest.newBuilder(URI.create("http://localhost:" + BackendContexts.port(context) + "/api/media/multipart/abort"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("""
+                        {"postUuid":"%s","filename":"clip.mp4","uploadId":"upload-1"}""".formatted(UUID.randomUUID())))
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int abortMultipartUpload() throws Exception {
+        HttpResponse<Void> response = client.send(abort, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 204) {
+            throw new IllegalStateException("Abort returned " + response.statusCode());
+        }
+        return response.statusCode();
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    static class SlowStorage {
+
+        // The in-JVM S3 stand-in (LocalS3Server) saturates long before either thread model does, so S3 is
+        // modelled as a store whose every call blocks the caller for one round trip.
+        @Bean
+        ObjectStore objectStore() {
+            return (ObjectStore) Proxy.newProxyInstance(ObjectStore.class.getClassLoader(), new Class<?>[]{ObjectStore.class},
+                    (proxy, method, args) -> {
+                        if (method.getDeclaringClass() == Object.class) {
+                            return method.invoke(this, args);
+                        }
+                        Thread.sleep(S3_ROUND_TRIP);
+                        return null;
+                    });
+        }
+
+        @Bean
+        SimpleMeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        PostService postService() {
+            return Mockito.mock(PostService.class);
+        }
+
+        @Bean
+        MediaUploadService mediaUploadService() {
+            return Mockito.mock(MediaUploadService.class);
+        }
+
+        @Bean
+        MediaVariantService mediaVariantService() {
+            return Mockito.mock(MediaVariantService.class);
+        }
+    }
+}
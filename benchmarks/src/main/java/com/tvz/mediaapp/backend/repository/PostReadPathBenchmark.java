@@ -0,0 +1,107 @@
+package com.tvz.mediaapp.backend.repository;
+
+import com.tvz.mediaapp.backend.model.Post;
+import com.tvz.mediaapp.backend.model.Role;
+import com.tvz.mediaapp.backend.model.User;
+import com.tvz.mediaapp.benchmarks.BackendContexts;
+import com.tvz.mediaapp.benchmarks.PostFixtures;
+import com.tvz.mediaapp.dto.PostDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** Listing all of a user's posts through Hibernate entities versus the JdbcTemplate read model behind GET /posts. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PostReadPathBenchmark {
+
+    @Param({"100", "10000"})
+    private int size;
+
+    private ConfigurableApplicationContext context;
+    private PostReadRepository postReadRepository;
+    private EntityManager entityManager;
+    private TransactionTemplate readOnly;
+    private User user;
+
+    @Setup
+    public void setUp() {
+        context = BackendContexts.jpa(List.of(PostReadRepository.class, SimpleMeterRegistry.class));
+        postReadRepository = context.getBean(PostReadRepository.class);
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(context.getBean(EntityManagerFactory.class));
+        readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+
+        user = context.getBean(UserRepository.class).save(User.builder()
+                .username("benchmark")
+                .email("benchmark@example.com")
+                .password("secret")
+                .role(Role.USER)
+                .build());
+        List<Post> posts = PostFixtures.posts(size);
+        posts.forEach(post -> post.setUser(user));
+        context.getBean(PostRepository.class).saveAll(posts);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<PostDto> entities() {
+        return readOnly.execute(status -> entityManager.createQuery("""
+                        SELECT p FROM Post p
+                        WHERE p.user = :user
+                        ORDER BY p.publishDate DESC, p.uuid DESC
+                        """, Post.class)
+                .setParameter("user", user)
+                .setMaxResults(size)
+                .getResultList()
+                .stream()
+                .map(post -> {
+                    PostDto dto = new PostDto();
+                    dto.setUuid(post.getUuid().toString());
+                    dto.setTitle(post.getTitle());
+                    dto.setContent(post.getContent());
+                    dto.setPublishDate(post.getPublishDate().toString());
+                    dto.setStatus(post.getStatus());
+                    dto.setPlatforms(new ArrayList<>(post.getPlatforms()));
+                    dto.setMediaType(post.getMediaType());
+                    dto.setCreatedAt(post.getCreatedAt());
+                    dto.setUpdatedAt(post.getUpdatedAt());
+                    dto.setMediaUris(new ArrayList<>(post.getMediaUris()));
+                    return dto;
+                })
+                .toList());
+    }
+
+    @Benchmark
+    public List<PostDto> readModel() {
+        return postReadRepository.findAllByUserId(user.getId(), 0, size);
+    }
+}
@@ -0,0 +1,131 @@
+package com.tvz.mediaapp.backend.service;
+
+import com.tvz.mediaapp.backend.model.Role;
+import com.tvz.mediaapp.backend.model.User;
+import com.tvz.mediaapp.benchmarks.BackendContexts;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/** Token issuing at login and the per-request validation in {@code JwtAuthFilter}. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    private static final String SECRET = "NGRkNGI5YjVlYmJjM2VkN2U4YjZkNzJmZDE4MmNlZWI2ZDM4ODdkYmYxMWY2MjRlM2Q5ZDMxNzM0MGI3NDQ0MA==";
+    private static final int TOKENS = 1024;
+
+    @State(Scope.Benchmark)
+    public static class Issuing {
+
+        JwtService jwtService;
+        User user;
+
+        @Setup
+        public void setUp() {
+            jwtService = jwtService(10_000);
+            user = user(42);
+        }
+    }
+
+    /**
+     * {@code hit} validates a token the verified-claims cache already holds. {@code miss} rotates through more
+     * tokens than the cache keeps, so every call parses the token and checks its signature.
+     */
+    @State(Scope.Benchmark)
+    public static class Validation {
+
+        @Param({"hit", "miss"})
+        String cache;
+
+        JwtService jwtService;
+        String[] tokens;
+        int next;
+
+        @Setup
+        public void setUp() {
+            boolean hit = cache.equals("hit");
+            jwtService = jwtService(hit ? 10_000 : TOKENS / 2);
+            tokens = new String[hit ? 1 : TOKENS];
+            for (int i = 0; i < tokens.length; i++) {
+                tokens[i] = jwtService.generateToken(user(i));
+            }
+            jwtService.validateToken(tokens[0]);
+        }
+
+        String nextToken() {
+            String token = tokens[next];
+            next = (next + 1) % tokens.length;
+            return token;
+        }
+    }
+
+    @Benchmark
+    public String generateToken(Issuing state) {
+        return state.jwtService.generateToken(state.user);
+    }
+
+    @Benchmark
+    public Claims validateToken(Validation state) {
+        return state.jwtService.validateToken(state.nextToken());
+    }
+
+    /**
+     * The per-request path before the shared parser and the verified-claims cache: {@code JwtAuthFilter} called
+     * {@code extractUsername}, then {@code isTokenValid} extracted the username and the expiration again, and each
+     * of the three parses decoded the key and built a new parser. {@code cache} does not apply here.
+     */
+    @Benchmark
+    public boolean validateTokenBeforeCaching(Validation state) {
+        String token = state.nextToken();
+        String username = parseWithNewParser(token).getSubject();
+        return username.equals(parseWithNewParser(token).getSubject())
+                && !parseWithNewParser(token).getExpiration().before(new Date());
+    }
+
+    private static Claims parseWithNewParser(String token) {
+        return Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)))
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+
+    private static JwtService jwtService(int verifiedCacheSize) {
+        JwtService jwtService = new JwtService(new SimpleMeterRegistry());
+        BackendContexts.setField(jwtService, "secretKey", SECRET);
+        BackendContexts.setField(jwtService, "jwtExpiration", TimeUnit.HOURS.toMillis(1));
+        BackendContexts.setField(jwtService, "refreshExpiration", TimeUnit.DAYS.toMillis(7));
+        BackendContexts.setField(jwtService, "verifiedCacheSize", verifiedCacheSize);
+        jwtService.init();
+        return jwtService;
+    }
+
+    private static User user(long id) {
+        return User.builder()
+                .id(id)
+                .username("user-" + id)
+                .email("user-" + id + "@example.com")
+                .role(Role.USER)
+                .build();
+    }
+}
@@ -0,0 +1,113 @@
+package com.tvz.mediaapp.backend.service;
+
+import com.tvz.mediaapp.backend.storage.S3ObjectStore;
+import com.tvz.mediaapp.backend.support.LocalS3Server;
+import com.tvz.mediaapp.benchmarks.BackendContexts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Committing a post's pending uploads against an S3 stand-in with a 20 ms round trip: one copy and one delete per
+ * file and thumbnail, issued one after another versus through {@code StorageService}'s bounded parallel requests.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class MediaCommitBenchmark {
+
+    private static final String BUCKET = "media";
+    private static final String PENDING = "uploads/pending/";
+    private static final Duration ROUND_TRIP = Duration.ofMillis(20);
+    private static final int FILES_PER_POST = 10;
+    private static final int MAX_IN_FLIGHT = 16;
+
+    private LocalS3Server s3;
+    private S3Client s3Client;
+    private StorageService storageService;
+    private UUID postUuid;
+    private List<String> files;
+
+    @Setup
+    public void setUp() throws IOException {
+        s3 = new LocalS3Server(BUCKET, ROUND_TRIP);
+        s3Client = s3.syncClient();
+        storageService = new StorageService(
+                new S3ObjectStore(s3Client, s3.asyncClient(MAX_IN_FLIGHT), null, BUCKET), new SimpleMeterRegistry());
+        BackendContexts.setField(storageService, "maxInFlightRequests", MAX_IN_FLIGHT);
+        BackendContexts.setField(storageService, "deleteMaxAttempts", 1);
+        storageService.init();
+    }
+
+    @Setup(Level.Invocation)
+    public void stagePendingUploads() {
+        postUuid = UUID.randomUUID();
+        files = new ArrayList<>();
+        for (int i = 0; i < FILES_PER_POST; i++) {
+            String filename = UUID.randomUUID() + ".jpg";
+            files.add(filename);
+            s3.objects().put(PENDING + filename, new byte[]{1});
+            s3.objects().put(PENDING + thumbnail(filename), new byte[]{1});
+        }
+    }
+
+    @TearDown(Level.Invocation)
+    public void checkPendingUploadsMoved() {
+        if (s3.objects().keySet().stream().anyMatch(key -> key.startsWith(PENDING))) {
+            throw new IllegalStateException("Commit left pending uploads behind");
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        s3.close();
+    }
+
+    @Benchmark
+    public void sequential() {
+        for (String filename : files) {
+            for (String name : List.of(filename, thumbnail(filename))) {
+                try {
+                    s3Client.copyObject(builder -> builder
+                            .sourceBucket(BUCKET)
+                            .sourceKey(PENDING + name)
+                            .destinationBucket(BUCKET)
+                            .destinationKey("media/posts/" + postUuid + "/" + name));
+                    s3Client.deleteObject(builder -> builder.bucket(BUCKET).key(PENDING + name));
+                } catch (NoSuchKeyException ignored) {
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public MediaCommitResult parallel() {
+        return storageService.movePendingFilesToPermanentLocation(postUuid, files);
+    }
+
+    private static String thumbnail(String filename) {
+        return filename.replace(".jpg", "_thumb.jpg");
+    }
+}
@@ -0,0 +1,49 @@
+package com.tvz.mediaapp.backend.service;
+
+import com.tvz.mediaapp.backend.model.Post;
+import com.tvz.mediaapp.benchmarks.PostFixtures;
+import com.tvz.mediaapp.dto.PostDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** {@code PostService.convertToDto} over a whole list, as the changes feed does. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PostMappingBenchmark {
+
+    @Param({"100", "10000", "100000"})
+    private int size;
+
+    private List<Post> posts;
+
+    @Setup
+    public void setUp() {
+        posts = PostFixtures.posts(size);
+    }
+
+    @Benchmark
+    public List<PostDto> convertToDto() {
+        List<PostDto> dtos = new ArrayList<>(posts.size());
+        for (Post post : posts) {
+            dtos.add(PostService.convertToDto(post));
+        }
+        return dtos;
+    }
+}
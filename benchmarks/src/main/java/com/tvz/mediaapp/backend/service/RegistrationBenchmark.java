@@ -0,0 +1,141 @@
+package com.tvz.mediaapp.backend.service;
+
+import com.tvz.mediaapp.backend.exception.UserAlreadyExistsException;
+import com.tvz.mediaapp.backend.model.Role;
+import com.tvz.mediaapp.backend.model.User;
+import com.tvz.mediaapp.backend.repository.UserRepository;
+import com.tvz.mediaapp.benchmarks.BackendContexts;
+import com.tvz.mediaapp.dto.RegisterRequestDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.authentication.AuthenticationManager;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 32 concurrent registrations with a 2 ms database round trip, a third of them colliding with an earlier one:
+ * {@code AuthenticationService.register}'s single insert that relies on the unique constraints, versus the
+ * {@code existsByUsername}/{@code existsByEmail} probes it used to run first.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Threads(32)
+@Fork(1)
+public class RegistrationBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private AuthenticationService authenticationService;
+    private PasswordHashingService passwordHashingService;
+    private UserRepository userRepository;
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Setup
+    public void setUp() {
+        context = BackendContexts.jpa(List.of(AuthenticationService.class, PasswordHashingService.class, SimpleMeterRegistry.class, Collaborators.class),
+                "spring.jpa.properties.hibernate.session_factory.statement_inspector=" + RoundTripLatency.class.getName(),
+                "auth.password.bcrypt-strength=4");
+        authenticationService = context.getBean(AuthenticationService.class);
+        passwordHashingService = context.getBean(PasswordHashingService.class);
+        userRepository = context.getBean(UserRepository.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public boolean singleInsert() {
+        try {
+            authenticationService.register(nextRequest("insert"));
+            return true;
+        } catch (UserAlreadyExistsException e) {
+            return false;
+        }
+    }
+
+    @Benchmark
+    public boolean existsProbes() {
+        RegisterRequestDto request = nextRequest("probe");
+        try {
+            if (userRepository.existsByUsername(request.getUsername()) || userRepository.existsByEmail(request.getEmail())) {
+                return false;
+            }
+            userRepository.save(User.builder()
+                    .username(request.getUsername())
+                    .email(request.getEmail())
+                    .password(passwordHashingService.encode(request.getPassword()))
+                    .role(Role.USER)
+                    .build());
+            return true;
+        } catch (RuntimeException e) {
+            // lost the race between the probe and the insert
+            return false;
+        }
+    }
+
+    private RegisterRequestDto nextRequest(String prefix) {
+        long next = sequence.getAndIncrement();
+        // a third of the requests collide with an earlier one
+        long id = next % 3 == 2 ? next - 1 : next;
+        RegisterRequestDto request = new RegisterRequestDto();
+        request.setUsername(prefix + "-" + id);
+        request.setEmail(prefix + "-" + id + "@example.com");
+        request.setPassword("secret");
+        return request;
+    }
+
+    /** Adds a fixed delay to every statement to stand in for the network round trip to Postgres. */
+    public static class RoundTripLatency implements StatementInspector {
+
+        @Override
+        public String inspect(String sql) {
+            try {
+                Thread.sleep(2);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return sql;
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    static class Collaborators {
+
+        @Bean
+        JwtService jwtService() {
+            return Mockito.mock(JwtService.class);
+        }
+
+        @Bean
+        AuthenticationManager authenticationManager() {
+            return Mockito.mock(AuthenticationManager.class);
+        }
+
+        @Bean
+        UserPrincipalService userPrincipalService() {
+            return Mockito.mock(UserPrincipalService.class);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.tvz.mediaapp.benchmarks;
+
+import com.tvz.mediaapp.backend.model.Post;
+import com.tvz.mediaapp.backend.repository.PostRepository;
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.domain.EntityScan;
+import org.springframework.boot.autoconfigure.http.HttpMessageConvertersAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.JdbcTemplateAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.transaction.TransactionAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.embedded.EmbeddedWebServerFactoryCustomizerAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.DispatcherServletAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.ServletWebServerFactoryAutoConfiguration;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Starts slices of the backend for benchmarks that need Spring: JPA against in-memory H2 instead of Postgres,
+ * and an embedded Tomcat on a random port. Benchmarks list the backend components they exercise on top.
+ */
+public final class BackendContexts {
+
+    private static final List<String> DEFAULTS = List.of(
+            "spring.datasource.url=jdbc:h2:mem:benchmarks;DB_CLOSE_DELAY=-1",
+            "spring.datasource.driver-class-name=org.h2.Driver",
+            "spring.datasource.username=sa",
+            "spring.datasource.password=",
+            "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+            "spring.jpa.show-sql=false",
+            "server.port=0",
+            "logging.level.root=WARN",
+            "logging.level.com.tvz.mediaapp=WARN",
+            "logging.level.org.hibernate.SQL=WARN"
+    );
+
+    private BackendContexts() {
+    }
+
+    public static ConfigurableApplicationContext jpa(List<Class<?>> components, String... properties) {
+        return start(WebApplicationType.NONE, Jpa.class, components, properties);
+    }
+
+    public static ConfigurableApplicationContext web(List<Class<?>> components, String... properties) {
+        return start(WebApplicationType.SERVLET, Web.class, components, properties);
+    }
+
+    public static int port(ConfigurableApplicationContext context) {
+        return ((WebServerApplicationContext) context).getWebServer().getPort();
+    }
+
+    /** Sets a field that Spring would inject from application.yml. */
+    public static void setField(Object target, String name, Object value) {
+        Field field = ReflectionUtils.findField(target.getClass(), name);
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, target, value);
+    }
+
+    private static ConfigurableApplicationContext start(WebApplicationType type, Class<?> slice, List<Class<?>> components, String... properties) {
+        List<Class<?>> sources = new ArrayList<>(components);
+        sources.add(slice);
+        // passed as command line arguments, which take precedence over the backend's application.yml
+        Map<String, String> arguments = new LinkedHashMap<>();
+        for (String property : DEFAULTS) {
+            arguments.put(property.substring(0, property.indexOf('=')), property);
+        }
+        for (String property : properties) {
+            arguments.put(property.substring(0, property.indexOf('=')), property);
+        }
+        return new SpringApplicationBuilder(sources.toArray(Class<?>[]::new))
+                .web(type)
+                .bannerMode(Banner.Mode.OFF)
+                .logStartupInfo(false)
+                .run(arguments.values().stream().map(argument -> "--" + argument).toArray(String[]::new));
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ImportAutoConfiguration({
+            DataSourceAutoConfiguration.class,
+            HibernateJpaAutoConfiguration.class,
+            TransactionAutoConfiguration.class,
+            JdbcTemplateAutoConfiguration.class
+    })
+    @EntityScan(basePackageClasses = Post.class)
+    @EnableJpaRepositories(basePackageClasses = PostRepository.class)
+    static class Jpa {
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ImportAutoConfiguration({
+            ServletWebServerFactoryAutoConfiguration.class,
+            EmbeddedWebServerFactoryCustomizerAutoConfiguration.class,
+            DispatcherServletAutoConfiguration.class,
+            WebMvcAutoConfiguration.class,
+            HttpMessageConvertersAutoConfiguration.class,
+            JacksonAutoConfiguration.class
+    })
+    static class Web {
+    }
+}
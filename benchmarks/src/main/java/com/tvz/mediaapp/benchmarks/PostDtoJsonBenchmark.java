@@ -0,0 +1,76 @@
+package com.tvz.mediaapp.benchmarks;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.tvz.mediaapp.dto.PostDto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@code PostDto} list written the way the backend's JSON converter writes it and read back the way the
+ * frontend's {@code ObjectMapper} reads it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PostDtoJsonBenchmark {
+
+    private static final TypeReference<List<PostDto>> POST_LIST = new TypeReference<>() {
+    };
+
+    @Param({"100", "10000", "100000"})
+    private int size;
+
+    private ObjectMapper backendMapper;
+    private ObjectMapper frontendMapper;
+    private List<PostDto> posts;
+    private byte[] json;
+
+    @Setup
+    public void setUp() throws IOException {
+        // Spring Boot's defaults on top of the builder
+        backendMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        // AppModule.provideObjectMapper
+        frontendMapper = new ObjectMapper();
+        frontendMapper.registerModule(new JavaTimeModule());
+
+        posts = PostFixtures.postDtos(size);
+        json = backendMapper.writeValueAsBytes(posts);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return backendMapper.writeValueAsBytes(posts);
+    }
+
+    @Benchmark
+    public List<PostDto> deserialize() throws IOException {
+        return frontendMapper.readValue(json, POST_LIST);
+    }
+
+    @Benchmark
+    public List<PostDto> roundTrip() throws IOException {
+        return frontendMapper.readValue(backendMapper.writeValueAsBytes(posts), POST_LIST);
+    }
+}
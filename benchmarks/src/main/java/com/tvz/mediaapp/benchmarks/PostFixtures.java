@@ -0,0 +1,84 @@
+package com.tvz.mediaapp.benchmarks;
+
+import com.tvz.mediaapp.backend.model.Post;
+import com.tvz.mediaapp.dto.PostDto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/** Deterministic posts shaped like production data: a paragraph of content, a few platforms and media files. */
+public final class PostFixtures {
+
+    private static final String[] STATUSES = {"IN_PROGRESS", "DONE", "CANCELED"};
+    private static final String[] PLATFORMS = {"FACEBOOK", "TIKTOK", "INSTAGRAM", "YOUTUBE", "X"};
+    private static final String[] MEDIA_TYPES = {"NONE", "LINK", "IMAGE", "VIDEO"};
+    private static final String CONTENT = "Behind the scenes of this week's shoot, with a few outtakes and a short "
+            + "thank-you to everyone who joined the live stream. Links to the full gallery are in the comments.";
+
+    private PostFixtures() {
+    }
+
+    public static List<Post> posts(int count) {
+        Random random = new Random(count);
+        LocalDateTime created = LocalDateTime.of(2025, 1, 1, 9, 0);
+        List<Post> posts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            posts.add(Post.builder()
+                    .uuid(new UUID(random.nextLong(), random.nextLong()))
+                    .title("Post " + i)
+                    .content(CONTENT)
+                    .publishDate(LocalDate.of(2025, 1, 1).plusDays(i % 365))
+                    .status(STATUSES[random.nextInt(STATUSES.length)])
+                    .platforms(platforms(random))
+                    .mediaType(MEDIA_TYPES[random.nextInt(MEDIA_TYPES.length)])
+                    .mediaUris(mediaUris(random))
+                    .createdAt(created.plusMinutes(i))
+                    .updatedAt(created.plusMinutes(i + 30))
+                    .changeVersion(i)
+                    .build());
+        }
+        return posts;
+    }
+
+    public static List<PostDto> postDtos(int count) {
+        List<PostDto> dtos = new ArrayList<>(count);
+        for (Post post : posts(count)) {
+            PostDto dto = new PostDto();
+            dto.setUuid(post.getUuid().toString());
+            dto.setTitle(post.getTitle());
+            dto.setContent(post.getContent());
+            dto.setPublishDate(post.getPublishDate().toString());
+            dto.setStatus(post.getStatus());
+            dto.setPlatforms(post.getPlatforms());
+            dto.setMediaType(post.getMediaType());
+            dto.setMediaUris(post.getMediaUris());
+            dto.setCreatedAt(post.getCreatedAt());
+            dto.setUpdatedAt(post.getUpdatedAt());
+            dtos.add(dto);
+        }
+        return dtos;
+    }
+
+    private static List<String> platforms(Random random) {
+        List<String> platforms = new ArrayList<>();
+        for (String platform : PLATFORMS) {
+            if (random.nextBoolean()) {
+                platforms.add(platform);
+            }
+        }
+        return platforms;
+    }
+
+    private static List<String> mediaUris(Random random) {
+        int count = random.nextInt(4);
+        List<String> mediaUris = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            mediaUris.add(new UUID(random.nextLong(), random.nextLong()) + (i % 2 == 0 ? ".jpg" : ".mp4"));
+        }
+        return mediaUris;
+    }
+}
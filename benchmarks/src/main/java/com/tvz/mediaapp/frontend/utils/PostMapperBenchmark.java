@@ -0,0 +1,49 @@
+package com.tvz.mediaapp.frontend.utils;
+
+import com.tvz.mediaapp.benchmarks.PostFixtures;
+import com.tvz.mediaapp.dto.PostDto;
+import com.tvz.mediaapp.frontend.model.Post;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** {@code PostMapper.fromDto} over a loaded post list, building the JavaFX-property backed client model. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PostMapperBenchmark {
+
+    @Param({"100", "10000", "100000"})
+    private int size;
+
+    private List<PostDto> dtos;
+
+    @Setup
+    public void setUp() {
+        dtos = PostFixtures.postDtos(size);
+    }
+
+    @Benchmark
+    public List<Post> fromDto() {
+        List<Post> posts = new ArrayList<>(dtos.size());
+        for (PostDto dto : dtos) {
+            posts.add(PostMapper.fromDto(dto));
+        }
+        return posts;
+    }
+}
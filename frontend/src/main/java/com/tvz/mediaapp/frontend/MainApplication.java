@@ -110,7 +110,7 @@ public class MainApplication extends Application {
     public void stop() throws Exception {
         logger.info("Application shutting down.");
         if (postsViewModel != null) {
-            postsViewModel.stopPolling();
+            postsViewModel.stopSync();
         }
         super.stop();
     }
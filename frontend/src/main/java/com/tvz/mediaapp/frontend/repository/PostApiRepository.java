@@ -4,8 +4,14 @@ import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
+import com.tvz.mediaapp.dto.BulkDownloadRequestDto;
 import com.tvz.mediaapp.dto.DownloadRequestDto;
+import com.tvz.mediaapp.dto.MultipartUploadDto;
+import com.tvz.mediaapp.dto.MultipartUploadPartDto;
+import com.tvz.mediaapp.dto.MultipartUploadRequestDto;
+import com.tvz.mediaapp.dto.PostChangesDto;
 import com.tvz.mediaapp.dto.PostDto;
+import com.tvz.mediaapp.dto.PostEventDto;
 import com.tvz.mediaapp.dto.PostRequestDto;
 import com.tvz.mediaapp.dto.UploadRequestDto;
 import com.tvz.mediaapp.frontend.model.SessionManager;
@@ -13,24 +19,49 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+import java.util.stream.Stream;
 
 @Singleton
 public class PostApiRepository {
     private static final Logger logger = LoggerFactory.getLogger(PostApiRepository.class);
     private static final String API_BASE_URL = "http://localhost:8080/api";
+    private static final int PART_UPLOAD_MAX_ATTEMPTS = 4;
+    private static final long PART_UPLOAD_RETRY_BACKOFF_MS = 1000;
 
     private final HttpClient httpClient;
     private final ObjectMapper objectMapper;
     private final SessionManager sessionManager;
+    private volatile CachedPosts cachedPosts;
+
+    private static final class CachedPosts {
+        private final String eTag;
+        private final List<PostDto> posts;
+
+        private CachedPosts(String eTag, List<PostDto> posts) {
+            this.eTag = eTag;
+            this.posts = posts;
+        }
+    }
 
     @Inject
     public PostApiRepository(HttpClient httpClient, ObjectMapper objectMapper, SessionManager sessionManager) {
@@ -46,18 +77,76 @@ public class PostApiRepository {
     }
 
     public CompletableFuture<List<PostDto>> getPosts() {
-        HttpRequest request = createAuthenticatedRequest(URI.create(API_BASE_URL + "/posts")).GET().build();
-        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+        CachedPosts cached = cachedPosts;
+        HttpRequest.Builder requestBuilder = createAuthenticatedRequest(URI.create(API_BASE_URL + "/posts")).GET();
+        if (cached != null) {
+            requestBuilder.header("If-None-Match", cached.eTag);
+        }
+        return httpClient.sendAsync(requestBuilder.build(), HttpResponse.BodyHandlers.ofString())
                 .thenApply(response -> {
+                    if (response.statusCode() == 304 && cached != null) {
+                        logger.debug("Post list not modified (ETag {}), using cached body.", cached.eTag);
+                        return cached.posts;
+                    }
                     if (response.statusCode() != 200) throw new RuntimeException("Failed to fetch posts");
                     try {
-                        return objectMapper.readValue(response.body(), new TypeReference<>() {});
+                        List<PostDto> posts = objectMapper.readValue(response.body(), new TypeReference<>() {});
+                        response.headers().firstValue("ETag")
+                                .ifPresent(eTag -> cachedPosts = new CachedPosts(eTag, posts));
+                        return posts;
                     } catch (IOException e) {
                         throw new RuntimeException("Failed to parse posts", e);
                     }
                 });
     }
 
+    public CompletableFuture<PostChangesDto> getPostChanges(long since) {
+        HttpRequest request = createAuthenticatedRequest(URI.create(API_BASE_URL + "/posts/changes?since=" + since)).GET().build();
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .thenApply(response -> {
+                    if (response.statusCode() != 200) throw new RuntimeException("Failed to fetch post changes");
+                    try {
+                        return objectMapper.readValue(response.body(), PostChangesDto.class);
+                    } catch (IOException e) {
+                        throw new RuntimeException("Failed to parse post changes", e);
+                    }
+                });
+    }
+
+    public CompletableFuture<HttpResponse<Stream<String>>> openPostEventStream() {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(API_BASE_URL + "/posts/stream"))
+                .header("Accept", "text/event-stream")
+                .header("Authorization", "Bearer " + sessionManager.getAccessToken())
+                .GET()
+                .build();
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofLines())
+                .thenApply(response -> {
+                    if (response.statusCode() != 200) {
+                        response.body().close();
+                        throw new RuntimeException("Failed to open post event stream (HTTP " + response.statusCode() + ")");
+                    }
+                    return response;
+                });
+    }
+
+    public void readPostEvents(Stream<String> lines, Consumer<PostEventDto> onEvent) {
+        StringBuilder data = new StringBuilder();
+        lines.forEach(line -> {
+            if (line.isEmpty()) {
+                if (!data.isEmpty()) {
+                    try {
+                        onEvent.accept(objectMapper.readValue(data.toString(), PostEventDto.class));
+                    } catch (IOException e) {
+                        logger.warn("Ignoring malformed post event: {}", data);
+                    }
+                    data.setLength(0);
+                }
+            } else if (line.startsWith("data:")) {
+                data.append(line.substring(5).trim());
+            }
+        });
+    }
+
     public CompletableFuture<PostDto> createPost(PostRequestDto newPost) {
         try {
             String requestBody = objectMapper.writeValueAsString(newPost);
@@ -116,10 +205,11 @@ public class PostApiRepository {
                 });
     }
 
-    public CompletableFuture<Map<String, String>> generateUploadUrl(String originalFilename) {
+    public CompletableFuture<Map<String, String>> generateUploadUrl(String postUuid, String originalFilename) {
         try {
             UploadRequestDto dto = new UploadRequestDto();
             dto.setFilename(originalFilename);
+            dto.setPostUuid(postUuid);
             String requestBody = objectMapper.writeValueAsString(dto);
 
             logger.debug("Requesting upload URL for filename: {}", originalFilename);
@@ -172,6 +262,32 @@ public class PostApiRepository {
         }
     }
 
+    public CompletableFuture<Map<String, Map<String, String>>> generateBulkDownloadUrls(Map<String, List<String>> filesByPost, boolean thumbnailsOnly, Integer size) {
+        try {
+            BulkDownloadRequestDto dto = new BulkDownloadRequestDto();
+            dto.setFiles(filesByPost);
+            dto.setThumbnailsOnly(thumbnailsOnly);
+            dto.setSize(size);
+            String requestBody = objectMapper.writeValueAsString(dto);
+
+            HttpRequest request = createAuthenticatedRequest(URI.create(API_BASE_URL + "/media/generate-download-urls/bulk"))
+                    .POST(HttpRequest.BodyPublishers.ofString(requestBody))
+                    .build();
+
+            return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                    .thenApply(response -> {
+                        if (response.statusCode() != 200) throw new RuntimeException("Failed to get download URLs");
+                        try {
+                            return objectMapper.readValue(response.body(), new TypeReference<>() {});
+                        } catch (IOException e) {
+                            throw new RuntimeException("Failed to parse download URLs response", e);
+                        }
+                    });
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
     public CompletableFuture<Void> uploadFile(String preSignedUrl, Path filePath, String contentType) {
         try {
             if (!Files.exists(filePath)) {
@@ -208,4 +324,160 @@ public class PostApiRepository {
             return CompletableFuture.failedFuture(e);
         }
     }
-}
\ No newline at end of file
+
+    public CompletableFuture<Void> uploadFileMultipart(String postUuid, Path filePath, String filename, String contentType,
+                                                       int parallelism, LongConsumer onBytesUploaded) {
+        long fileSize;
+        try {
+            fileSize = Files.size(filePath);
+        } catch (IOException e) {
+            logger.error("Could not read file for upload: {}", filePath, e);
+            return CompletableFuture.failedFuture(e);
+        }
+
+        return createMultipartUpload(postUuid, filename, contentType, fileSize).thenCompose(upload -> {
+            logger.debug("Uploading {} ({} bytes) in {} parts, {} at a time", filePath.getFileName(), fileSize,
+                    upload.getParts().size(), parallelism);
+            Queue<MultipartUploadPartDto> remaining = new ConcurrentLinkedQueue<>(upload.getParts());
+            List<MultipartUploadPartDto> uploaded = Collections.synchronizedList(new ArrayList<>());
+
+            List<CompletableFuture<Void>> workers = new ArrayList<>();
+            for (int i = 0; i < Math.min(parallelism, upload.getParts().size()); i++) {
+                workers.add(uploadRemainingParts(filePath, fileSize, upload.getPartSize(), remaining, uploaded, onBytesUploaded));
+            }
+
+            return CompletableFuture.allOf(workers.toArray(new CompletableFuture[0]))
+                    .thenCompose(v -> {
+                        upload.setParts(new ArrayList<>(uploaded));
+                        return completeMultipartUpload(upload);
+                    })
+                    .handle((v, ex) -> {
+                        if (ex == null) {
+                            logger.info("Successfully uploaded file: {} ({} bytes)", filePath.getFileName(), fileSize);
+                            return CompletableFuture.<Void>completedFuture(null);
+                        }
+                        logger.error("Multipart upload failed for {}, aborting", filePath.getFileName(), ex);
+                        return abortMultipartUpload(upload).<Void>handle((a, abortEx) -> {
+                            throw ex instanceof CompletionException ? (CompletionException) ex : new CompletionException(ex);
+                        });
+                    })
+                    .thenCompose(future -> future);
+        });
+    }
+
+    private CompletableFuture<Void> uploadRemainingParts(Path filePath, long fileSize, long partSize,
+                                                         Queue<MultipartUploadPartDto> remaining,
+                                                         List<MultipartUploadPartDto> uploaded,
+                                                         LongConsumer onBytesUploaded) {
+        MultipartUploadPartDto part = remaining.poll();
+        if (part == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        long offset = (part.getPartNumber() - 1L) * partSize;
+        int length = (int) Math.min(partSize, fileSize - offset);
+
+        return uploadPart(filePath, offset, length, part, 1)
+                .whenComplete((etag, ex) -> {
+                    if (ex != null) {
+                        remaining.clear();
+                    }
+                })
+                .thenCompose(etag -> {
+                    uploaded.add(MultipartUploadPartDto.builder().partNumber(part.getPartNumber()).etag(etag).build());
+                    onBytesUploaded.accept(length);
+                    return uploadRemainingParts(filePath, fileSize, partSize, remaining, uploaded, onBytesUploaded);
+                });
+    }
+
+    private CompletableFuture<String> uploadPart(Path filePath, long offset, int length, MultipartUploadPartDto part, int attempt) {
+        byte[] bytes = new byte[length];
+        try (FileChannel channel = FileChannel.open(filePath, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            while (buffer.hasRemaining() && channel.read(buffer, offset + buffer.position()) >= 0) {
+                // keep reading until the part is filled
+            }
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create(part.getUrl()))
+                .PUT(HttpRequest.BodyPublishers.ofByteArray(bytes))
+                .build();
+
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .thenApply(response -> {
+                    if (response.statusCode() != 200) {
+                        throw new RuntimeException("Upload of part " + part.getPartNumber() + " failed with status: " + response.statusCode());
+                    }
+                    return response.headers().firstValue("ETag")
+                            .orElseThrow(() -> new RuntimeException("No ETag returned for part " + part.getPartNumber()));
+                })
+                .handle((etag, ex) -> {
+                    if (ex == null) {
+                        return CompletableFuture.completedFuture(etag);
+                    }
+                    if (attempt >= PART_UPLOAD_MAX_ATTEMPTS) {
+                        return CompletableFuture.<String>failedFuture(ex);
+                    }
+                    logger.warn("Retrying part {} of {} (attempt {} of {}): {}", part.getPartNumber(), filePath.getFileName(),
+                            attempt + 1, PART_UPLOAD_MAX_ATTEMPTS, ex.getMessage());
+                    return CompletableFuture.runAsync(() -> {},
+                                    CompletableFuture.delayedExecutor(PART_UPLOAD_RETRY_BACKOFF_MS * attempt, TimeUnit.MILLISECONDS))
+                            .thenCompose(v -> uploadPart(filePath, offset, length, part, attempt + 1));
+                })
+                .thenCompose(future -> future);
+    }
+
+    private CompletableFuture<MultipartUploadDto> createMultipartUpload(String postUuid, String filename, String contentType, long fileSize) {
+        try {
+            MultipartUploadRequestDto dto = new MultipartUploadRequestDto();
+            dto.setFilename(filename);
+            dto.setPostUuid(postUuid);
+            dto.setContentType(contentType);
+            dto.setFileSize(fileSize);
+
+            HttpRequest request = createAuthenticatedRequest(URI.create(API_BASE_URL + "/media/multipart/create"))
+                    .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(dto)))
+                    .build();
+
+            return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                    .thenApply(response -> {
+                        if (response.statusCode() != 200) {
+                            throw new RuntimeException("Failed to start multipart upload (HTTP " + response.statusCode() + ")");
+                        }
+                        try {
+                            return objectMapper.readValue(response.body(), MultipartUploadDto.class);
+                        } catch (IOException e) {
+                            throw new RuntimeException("Failed to parse multipart upload response", e);
+                        }
+                    });
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private CompletableFuture<Void> completeMultipartUpload(MultipartUploadDto upload) {
+        return postMultipartUpload("/media/multipart/complete", upload);
+    }
+
+    private CompletableFuture<Void> abortMultipartUpload(MultipartUploadDto upload) {
+        return postMultipartUpload("/media/multipart/abort", upload);
+    }
+
+    private CompletableFuture<Void> postMultipartUpload(String path, MultipartUploadDto upload) {
+        try {
+            HttpRequest request = createAuthenticatedRequest(URI.create(API_BASE_URL + path))
+                    .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(upload)))
+                    .build();
+
+            return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                    .thenAccept(response -> {
+                        if (response.statusCode() != 204) {
+                            throw new RuntimeException("Multipart upload request " + path + " failed (HTTP " + response.statusCode() + ")");
+                        }
+                    });
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+}
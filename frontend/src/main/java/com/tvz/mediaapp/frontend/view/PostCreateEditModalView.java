@@ -138,7 +138,10 @@ public class PostCreateEditModalView implements View {
         );
 
         saveButton.textProperty().bind(
-                Bindings.when(viewModel.isSavingProperty()).then("Saving...")
+                Bindings.when(viewModel.isSavingProperty())
+                        .then(Bindings.when(viewModel.uploadProgressProperty().greaterThan(0).and(viewModel.uploadProgressProperty().lessThan(1)))
+                                .then(Bindings.format("Uploading %.0f%%", viewModel.uploadProgressProperty().multiply(100)))
+                                .otherwise("Saving..."))
                         .otherwise(Bindings.when(viewModel.hasActiveTasksProperty()).then("Processing...").otherwise("Save Post"))
         );
 
@@ -1,6 +1,7 @@
 package com.tvz.mediaapp.frontend.viewmodel;
 
 import com.google.inject.Inject;
+import com.tvz.mediaapp.dto.PostRequestDto;
 import com.tvz.mediaapp.frontend.model.MediaType;
 import com.tvz.mediaapp.frontend.model.Platform;
 import com.tvz.mediaapp.frontend.model.Post;
@@ -26,17 +27,19 @@ import java.awt.image.BufferedImage;
 import java.io.*;
 import java.net.URL;
 import java.net.URLConnection;
-import java.nio.file.Files;
-import java.nio.file.Path;
 import java.time.LocalDate;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
 import java.util.stream.Collectors;
 
 public class PostCreateEditModalViewModel {
     private static final Logger logger = LoggerFactory.getLogger(PostCreateEditModalViewModel.class);
     private static final int THUMBNAIL_SIZE = 150;
+    private static final long MULTIPART_THRESHOLD_BYTES = 16L * 1024 * 1024;
+    private static final int UPLOAD_PARALLELISM = Integer.getInteger("mediaapp.upload.parallelism", 4);
 
     public abstract static class MediaItem {
         public final String uniqueId;
@@ -93,9 +96,13 @@ public class PostCreateEditModalViewModel {
 
     private final Set<String> activeTasks = ConcurrentHashMap.newKeySet();
     private final BooleanProperty hasActiveTasks = new SimpleBooleanProperty(false);
+    private final DoubleProperty uploadProgress = new SimpleDoubleProperty(0);
+    private final AtomicLong uploadTotalBytes = new AtomicLong();
+    private final AtomicLong uploadedBytes = new AtomicLong();
 
     private Runnable onCloseCallback;
     private Runnable onSaveCallback;
+    private String postUuid;
 
     @Inject
     public PostCreateEditModalViewModel(PostApiRepository postApiRepository, NotificationService notificationService, UserPreferencesService userPreferencesService) {
@@ -112,6 +119,7 @@ public class PostCreateEditModalViewModel {
     public StringProperty linkUrlProperty() { return linkUrl; }
     public BooleanProperty isSavingProperty() { return isSaving; }
     public ReadOnlyBooleanProperty hasActiveTasksProperty() { return hasActiveTasks; }
+    public ReadOnlyDoubleProperty uploadProgressProperty() { return uploadProgress; }
     public ObservableList<MediaItem> getImageMediaFiles() { return imageMediaFiles; }
     public ObservableList<MediaItem> getVideoMediaFiles() { return videoMediaFiles; }
     public ObjectProperty<Post> editingPostProperty() { return editingPost; }
@@ -213,37 +221,27 @@ public class PostCreateEditModalViewModel {
                     return;
                 }
 
-                String thumbFilename = getThumbnailFileName(mediaItem.serverFilename);
-                logger.debug("Generated thumbnail filename: {}", thumbFilename);
+                String postUuid = editingPost.get().getUuid();
+                Map<String, String> urls = postApiRepository.generateBulkDownloadUrls(
+                        Map.of(postUuid, List.of(mediaItem.serverFilename)), true, THUMBNAIL_SIZE
+                ).get().getOrDefault(postUuid, Map.of());
 
-                Map<String, String> urls = postApiRepository.generateDownloadUrls(
-                        editingPost.get().getUuid(),
-                        List.of(thumbFilename, mediaItem.serverFilename)
-                ).get();
-
-                logger.debug("Received URLs from API: {}", urls);
-
-                String thumbnailUrl = urls.get(thumbFilename);
-                if (thumbnailUrl != null && !thumbnailUrl.isEmpty()) {
-                    logger.info("Loading thumbnail from URL: {}", thumbnailUrl);
+                String thumbnailUrl = urls.get(mediaItem.serverFilename);
+                if (thumbnailUrl == null || thumbnailUrl.isEmpty()) {
+                    logger.warn("Thumbnail not found in response for: {}", mediaItem.serverFilename);
+                    return;
+                }
 
-                    try (InputStream in = new URL(thumbnailUrl).openStream()) {
-                        Image thumbnail = new Image(in);
+                try (InputStream in = new URL(thumbnailUrl).openStream()) {
+                    Image thumbnail = new Image(in, THUMBNAIL_SIZE, THUMBNAIL_SIZE, true, true);
 
-                        if (thumbnail.isError()) {
-                            logger.error("Image loading error for thumbnail: {}", thumbFilename);
-                            logger.error("Error: {}", thumbnail.getException());
-                            loadOriginalAsThumb(mediaItem, urls);
-                        } else {
-                            logger.info("Successfully loaded thumbnail: {}x{}",
-                                    thumbnail.getWidth(), thumbnail.getHeight());
-                            updateThumbnailCacheAndProperty(mediaItem.uniqueId, thumbnail);
-                        }
+                    if (thumbnail.isError()) {
+                        logger.error("Image loading error for thumbnail of {}: {}", mediaItem.serverFilename, thumbnail.getException());
+                    } else {
+                        logger.info("Successfully loaded thumbnail: {}x{}",
+                                thumbnail.getWidth(), thumbnail.getHeight());
+                        updateThumbnailCacheAndProperty(mediaItem.uniqueId, thumbnail);
                     }
-                } else {
-                    logger.warn("Thumbnail not found in response: {}", thumbFilename);
-                    logger.debug("Available URLs: {}", urls.keySet());
-                    loadOriginalAsThumb(mediaItem, urls);
                 }
             } catch (Exception e) {
                 logger.error("Failed to load existing thumbnail for {}", mediaItem.displayName, e);
@@ -253,48 +251,6 @@ public class PostCreateEditModalViewModel {
         });
     }
 
-    private void loadOriginalAsThumb(ExistingMediaItem mediaItem, Map<String, String> urls) {
-        String originalUrl = urls.get(mediaItem.serverFilename);
-        if (originalUrl != null && !originalUrl.isEmpty()) {
-            logger.info("Falling back to original file as thumbnail for: {}", mediaItem.serverFilename);
-            try (InputStream in = new URL(originalUrl).openStream()) {
-                Image thumbnail = new Image(in, THUMBNAIL_SIZE, THUMBNAIL_SIZE, true, true);
-
-                if (thumbnail.isError()) {
-                    logger.error("Error loading original file as thumbnail: {}", thumbnail.getException());
-                } else {
-                    logger.info("Successfully loaded original as thumbnail: {}x{}",
-                            thumbnail.getWidth(), thumbnail.getHeight());
-                    updateThumbnailCacheAndProperty(mediaItem.uniqueId, thumbnail);
-                }
-            } catch (Exception e) {
-                logger.error("Failed to load original file as thumbnail", e);
-            }
-        } else {
-            logger.error("No original file URL available for: {}", mediaItem.serverFilename);
-        }
-    }
-
-    private String getThumbnailFileName(String originalFileName) {
-        if (originalFileName == null || originalFileName.isEmpty()) {
-            logger.warn("Original filename is null or empty");
-            return null;
-        }
-
-        int lastDotIndex = originalFileName.lastIndexOf('.');
-        String result;
-
-        if (lastDotIndex == -1) {
-            result = originalFileName + "_thumb.jpg";
-        } else {
-            String nameWithoutExt = originalFileName.substring(0, lastDotIndex);
-            result = nameWithoutExt + "_thumb.jpg";
-        }
-
-        logger.debug("Thumbnail filename: {} -> {}", originalFileName, result);
-        return result;
-    }
-
     private BufferedImage generateThumbnail(File file) throws Exception {
         logger.debug("Generating thumbnail for file: {}", file.getName());
 
@@ -357,24 +313,12 @@ public class PostCreateEditModalViewModel {
         });
     }
 
-    private CompletableFuture<Void> uploadFileWithThumbnail(NewMediaItem mediaItem) {
+    private CompletableFuture<Void> uploadMediaFile(NewMediaItem mediaItem) {
         addTask("upload-" + mediaItem.uniqueId);
         return CompletableFuture.runAsync(() -> {
             try {
-                String extension = getFileExtension(mediaItem.file.getName());
-                String baseName = UUID.randomUUID().toString();
-                String uploadedFileName = baseName + extension;
-                String thumbnailFileName = baseName + "_thumb.jpg";
-
-                uploadFile(mediaItem.file, uploadedFileName).join();
-
-                BufferedImage thumbnailImage = generateThumbnail(mediaItem.file);
-                if (thumbnailImage != null) {
-                    Path tempThumbPath = Files.createTempFile("thumb_", ".jpg");
-                    ImageIO.write(thumbnailImage, "jpg", tempThumbPath.toFile());
-                    uploadFile(tempThumbPath.toFile(), thumbnailFileName).join();
-                    Files.delete(tempThumbPath);
-                }
+                String uploadedFileName = UUID.randomUUID() + getFileExtension(mediaItem.file.getName());
+                uploadFile(mediaItem.file, uploadedFileName, this::addUploadedBytes).join();
                 uploadedFileNames.put(mediaItem.uniqueId, uploadedFileName);
             } catch (Exception e) {
                 throw new RuntimeException("Upload failed for " + mediaItem.displayName, e);
@@ -382,14 +326,24 @@ public class PostCreateEditModalViewModel {
         }).whenComplete((res, ex) -> removeTask("upload-" + mediaItem.uniqueId));
     }
 
-    private CompletableFuture<Void> uploadFile(File file, String fileName) {
-        return postApiRepository.generateUploadUrl(fileName)
+    private CompletableFuture<Void> uploadFile(File file, String fileName, LongConsumer onBytesUploaded) {
+        String contentType = URLConnection.guessContentTypeFromName(file.getName());
+        if (file.length() > MULTIPART_THRESHOLD_BYTES) {
+            return postApiRepository.uploadFileMultipart(postUuid, file.toPath(), fileName, contentType, UPLOAD_PARALLELISM, onBytesUploaded);
+        }
+        return postApiRepository.generateUploadUrl(postUuid, fileName)
                 .thenCompose(response -> {
                     String uploadUrl = response.get("uploadUrl");
                     if (uploadUrl == null) throw new RuntimeException("Received null upload URL for " + fileName);
-                    String contentType = URLConnection.guessContentTypeFromName(file.getName());
                     return postApiRepository.uploadFile(uploadUrl, file.toPath(), contentType);
-                });
+                })
+                .thenRun(() -> onBytesUploaded.accept(file.length()));
+    }
+
+    private void addUploadedBytes(long bytes) {
+        long total = uploadTotalBytes.get();
+        double progress = total > 0 ? Math.min(1.0, (double) uploadedBytes.addAndGet(bytes) / total) : 1.0;
+        javafx.application.Platform.runLater(() -> uploadProgress.set(progress));
     }
 
     private String getFileExtension(String name) {
@@ -422,12 +376,14 @@ public class PostCreateEditModalViewModel {
     private void initializeForCreate() {
         editingPost.set(null);
         resetFields();
+        postUuid = UUID.randomUUID().toString();
     }
 
     public void initializeForEdit(Post post) {
         logger.info("Initializing edit mode for post: {}", post.getTitle());
         resetFields();
         editingPost.set(post);
+        postUuid = post.getUuid();
         title.set(post.getTitle());
         content.set(post.getContent());
         publishDate.set(post.getDate());
@@ -519,10 +475,16 @@ public class PostCreateEditModalViewModel {
         isSaving.set(true);
 
         ObservableList<MediaItem> filesToUpload = (mediaType.get() == MediaType.IMAGE) ? imageMediaFiles : videoMediaFiles;
-        List<CompletableFuture<Void>> uploadFutures = filesToUpload.stream()
+        List<NewMediaItem> newItems = filesToUpload.stream()
                 .filter(item -> item instanceof NewMediaItem)
                 .map(item -> (NewMediaItem) item)
-                .map(this::uploadFileWithThumbnail)
+                .collect(Collectors.toList());
+        uploadTotalBytes.set(newItems.stream().mapToLong(item -> item.file.length()).sum());
+        uploadedBytes.set(0);
+        uploadProgress.set(0);
+
+        List<CompletableFuture<Void>> uploadFutures = newItems.stream()
+                .map(this::uploadMediaFile)
                 .collect(Collectors.toList());
 
         CompletableFuture.allOf(uploadFutures.toArray(new CompletableFuture[0])).thenRun(() -> {
@@ -534,7 +496,7 @@ public class PostCreateEditModalViewModel {
 
     private Post createPostFromFields() {
         Post post = (editingPost.get() != null) ? editingPost.get() : new Post();
-        post.setUuid(editingPost.get() != null ? editingPost.get().getUuid() : null);
+        post.setUuid(postUuid);
         post.setTitle(title.get());
         post.setContent(content.get());
         post.setDate(publishDate.get());
@@ -560,17 +522,23 @@ public class PostCreateEditModalViewModel {
     }
 
     private void createPost(Post post) {
-        postApiRepository.createPost(PostMapper.toRequestDto(post))
+        postApiRepository.createPost(toDirectUploadRequest(post))
                 .thenAccept(this::handleSaveSuccess)
                 .exceptionally(this::handleSaveFailure);
     }
 
     private void updatePost(Post post) {
-        postApiRepository.updatePost(post.getUuid(), PostMapper.toRequestDto(post))
+        postApiRepository.updatePost(post.getUuid(), toDirectUploadRequest(post))
                 .thenAccept(this::handleSaveSuccess)
                 .exceptionally(this::handleSaveFailure);
     }
 
+    private PostRequestDto toDirectUploadRequest(Post post) {
+        PostRequestDto dto = PostMapper.toRequestDto(post);
+        dto.setDirectUpload(true);
+        return dto;
+    }
+
     private Void handleSaveSuccess(Object result) {
         javafx.application.Platform.runLater(() -> {
             isSaving.set(false);
@@ -22,12 +22,15 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
 public class PostViewModalViewModel {
     private static final Logger logger = LoggerFactory.getLogger(PostViewModalViewModel.class);
+    private static final int THUMBNAIL_SIZE = 150;
 
     private final PostApiRepository postApiRepository;
     private final NotificationService notificationService;
@@ -72,31 +75,40 @@ public class PostViewModalViewModel {
         mediaItems.clear();
         thumbnailProperties.clear();
         if (postCopy.getMediaType() == MediaType.IMAGE || postCopy.getMediaType() == MediaType.VIDEO) {
-            if (postCopy.getMediaUris() != null) {
+            if (postCopy.getMediaUris() != null && !postCopy.getMediaUris().isEmpty()) {
                 for (String serverFilename : postCopy.getMediaUris()) {
-                    MediaItem item = new MediaItem(serverFilename);
-                    mediaItems.add(item);
-                    loadThumbnailAsync(item);
+                    mediaItems.add(new MediaItem(serverFilename));
                 }
+                loadThumbnailsAsync(postCopy.getUuid(), List.copyOf(mediaItems));
             }
         }
     }
 
-    private void loadThumbnailAsync(MediaItem mediaItem) {
-        CompletableFuture.runAsync(() -> {
-            try {
-                String thumbFilename = getThumbnailFileName(mediaItem.serverFilename);
-                Map<String, String> urls = postApiRepository.generateDownloadUrls(currentPost.get().getUuid(), Collections.singletonList(thumbFilename)).get();
-                if (urls.containsKey(thumbFilename)) {
-                    try (InputStream in = new URL(urls.get(thumbFilename)).openStream()) {
-                        Image thumbnail = new Image(in);
-                        updateThumbnailProperty(mediaItem.uniqueId, thumbnail);
+    private void loadThumbnailsAsync(String postUuid, List<MediaItem> items) {
+        List<String> filenames = items.stream().map(item -> item.serverFilename).collect(Collectors.toList());
+        postApiRepository.generateBulkDownloadUrls(Map.of(postUuid, filenames), true, THUMBNAIL_SIZE)
+                .thenAccept(urlsByPost -> {
+                    Map<String, String> urls = urlsByPost.getOrDefault(postUuid, Map.of());
+                    for (MediaItem item : items) {
+                        String url = urls.get(item.serverFilename);
+                        if (url != null && !url.isEmpty()) {
+                            CompletableFuture.runAsync(() -> loadThumbnail(item, url));
+                        }
                     }
-                }
-            } catch (Exception e) {
-                logger.error("Failed to load thumbnail for {}", mediaItem.serverFilename, e);
-            }
-        });
+                })
+                .exceptionally(ex -> {
+                    logger.error("Failed to load thumbnail URLs for post {}", postUuid, ex);
+                    return null;
+                });
+    }
+
+    private void loadThumbnail(MediaItem mediaItem, String url) {
+        try (InputStream in = new URL(url).openStream()) {
+            Image thumbnail = new Image(in);
+            updateThumbnailProperty(mediaItem.uniqueId, thumbnail);
+        } catch (Exception e) {
+            logger.error("Failed to load thumbnail for {}", mediaItem.serverFilename, e);
+        }
     }
 
     private void updatePostStatus(Status newStatus) {
@@ -152,11 +164,6 @@ public class PostViewModalViewModel {
         });
     }
 
-    private String getThumbnailFileName(String originalFileName) {
-        int lastDotIndex = originalFileName.lastIndexOf('.');
-        return (lastDotIndex == -1) ? originalFileName + "_thumb.jpg" : originalFileName.substring(0, lastDotIndex) + "_thumb.jpg";
-    }
-
     private void updateThumbnailProperty(String uniqueId, Image image) {
         javafx.application.Platform.runLater(() -> {
             getThumbnailProperty(uniqueId).set(image);
@@ -3,6 +3,7 @@ package com.tvz.mediaapp.frontend.viewmodel;
 import com.google.inject.Inject;
 import com.google.inject.Injector;
 import com.google.inject.Singleton;
+import com.tvz.mediaapp.dto.PostEventDto;
 import com.tvz.mediaapp.frontend.model.Post;
 import com.tvz.mediaapp.frontend.repository.PostApiRepository;
 import com.tvz.mediaapp.frontend.service.NavigationManager;
@@ -20,18 +21,26 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.net.ConnectException;
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Singleton
 public class PostsViewModel {
     private static final Logger logger = LoggerFactory.getLogger(PostsViewModel.class);
 
+    private static final long STREAM_RECONNECT_DELAY_SECONDS = 15;
+
     private final ObservableList<Post> masterPostList = FXCollections.observableArrayList();
     private ScheduledExecutorService pollingExecutor;
+    private ScheduledExecutorService streamExecutor;
+    private volatile Stream<String> eventStream;
+    private final AtomicLong syncVersion = new AtomicLong(0);
+    private final AtomicBoolean syncInProgress = new AtomicBoolean(false);
+    private final AtomicBoolean syncRequested = new AtomicBoolean(false);
     private final StringProperty searchText = new SimpleStringProperty("");
     private final AtomicBoolean isInitialized = new AtomicBoolean(false);
 
@@ -44,7 +53,7 @@ public class PostsViewModel {
         if (isInitialized.compareAndSet(false, true)) {
             logger.info("Initializing PostsViewModel for the first time in this session.");
             fetchPosts();
-            startPolling();
+            startEventStream();
         } else {
             logger.warn("PostsViewModel already initialized. Skipping poller setup, just refreshing data.");
             fetchPosts();
@@ -53,9 +62,10 @@ public class PostsViewModel {
 
     public void reset() {
         logger.info("Resetting PostsViewModel state for logout.");
-        stopPolling();
-        Platform.runLater(masterPostList::clear);
         isInitialized.set(false);
+        stopSync();
+        Platform.runLater(masterPostList::clear);
+        syncVersion.set(0);
     }
 
     public void createNewPost() {
@@ -103,7 +113,12 @@ public class PostsViewModel {
         deleteModal.showDeleteConfirmation(post, this::performDeletePost);
     }
 
-    public void stopPolling() {
+    public void stopSync() {
+        stopPolling();
+        stopEventStream();
+    }
+
+    private synchronized void stopPolling() {
         if (pollingExecutor != null && !pollingExecutor.isShutdown()) {
             logger.info("Stopping API polling service.");
             pollingExecutor.shutdownNow();
@@ -111,10 +126,92 @@ public class PostsViewModel {
         }
     }
 
+    private synchronized void startEventStream() {
+        streamExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "PostEventStreamThread");
+            t.setDaemon(true);
+            return t;
+        });
+        connectEventStream();
+    }
+
+    private synchronized void stopEventStream() {
+        if (streamExecutor != null) {
+            logger.info("Closing post event stream.");
+            streamExecutor.shutdownNow();
+            streamExecutor = null;
+        }
+        Stream<String> stream = eventStream;
+        if (stream != null) {
+            stream.close();
+            eventStream = null;
+        }
+    }
+
+    private void connectEventStream() {
+        ScheduledExecutorService executor = streamExecutor;
+        if (executor == null || executor.isShutdown()) return;
+
+        postApiRepository.openPostEventStream().thenAcceptAsync(response -> {
+            logger.info("Connected to post event stream.");
+            eventStream = response.body();
+            stopPolling();
+            fetchPosts();
+            postApiRepository.readPostEvents(response.body(), this::onPostEvent);
+        }, executor).whenComplete((result, ex) -> {
+            eventStream = null;
+            if (!isInitialized.get()) return;
+
+            logger.warn("Post event stream dropped. Falling back to polling and reconnecting in {} seconds.",
+                    STREAM_RECONNECT_DELAY_SECONDS, ex);
+            startPolling();
+            try {
+                executor.schedule(this::connectEventStream, STREAM_RECONNECT_DELAY_SECONDS, TimeUnit.SECONDS);
+            } catch (RejectedExecutionException e) {
+                logger.debug("Event stream executor already stopped, not reconnecting.");
+            }
+        });
+    }
+
+    private void onPostEvent(PostEventDto event) {
+        logger.debug("Received post event {} for {} (version {})", event.getType(), event.getUuid(), event.getVersion());
+        if (event.getVersion() > syncVersion.get()) {
+            fetchPosts();
+        }
+    }
+
     public void fetchPosts() {
-        postApiRepository.getPosts().thenAccept(postDtos -> {
-            List<Post> serverPosts = postDtos.stream().map(PostMapper::fromDto).collect(Collectors.toList());
-            Platform.runLater(() -> updateObservableList(serverPosts));
+        syncRequested.set(true);
+        if (syncInProgress.compareAndSet(false, true)) {
+            syncChanges();
+        }
+    }
+
+    public void refreshPosts() {
+        fetchPosts();
+    }
+
+    private void syncChanges() {
+        syncRequested.set(false);
+        long since = syncVersion.get();
+
+        postApiRepository.getPostChanges(since).thenApply(changes -> {
+            if (changes.isReset() || changes.getVersion() < since) {
+                logger.warn("Server cannot continue from local version {} (server version {}). Performing full resync.", since, changes.getVersion());
+                syncVersion.set(0);
+                Platform.runLater(masterPostList::clear);
+                return true;
+            }
+
+            List<Post> changedPosts = changes.getPosts().stream().map(PostMapper::fromDto).collect(Collectors.toList());
+            List<String> deletedUuids = changes.getDeleted();
+            if (!changedPosts.isEmpty() || !deletedUuids.isEmpty()) {
+                logger.debug("Applying {} changed and {} deleted posts (version {} -> {})",
+                        changedPosts.size(), deletedUuids.size(), since, changes.getVersion());
+                Platform.runLater(() -> applyChanges(changedPosts, deletedUuids));
+            }
+            syncVersion.set(changes.getVersion());
+            return changes.isHasMore();
 
         }).exceptionally(ex -> {
             logger.error("Failed to fetch posts", ex);
@@ -125,37 +222,45 @@ public class PostsViewModel {
                     notificationService.showError("Failed to fetch posts. Please try again.");
                 }
             });
-            return null;
+            return false;
+        }).thenAccept(hasMore -> {
+            if (hasMore || syncRequested.get()) {
+                syncChanges();
+            } else {
+                syncInProgress.set(false);
+                if (syncRequested.get() && syncInProgress.compareAndSet(false, true)) {
+                    syncChanges();
+                }
+            }
         });
     }
 
-    public void refreshPosts() {
-        fetchPosts();
-    }
-
-    private void updateObservableList(List<Post> serverPosts) {
-        masterPostList.removeIf(localPost ->
-                serverPosts.stream().noneMatch(serverPost -> serverPost.getUuid().equals(localPost.getUuid()))
-        );
+    private void applyChanges(List<Post> changedPosts, List<String> deletedUuids) {
+        if (!deletedUuids.isEmpty()) {
+            Set<String> deleted = new HashSet<>(deletedUuids);
+            masterPostList.removeIf(localPost -> deleted.contains(localPost.getUuid()));
+        }
 
-        for (Post serverPost : serverPosts) {
-            Optional<Post> localOpt = masterPostList.stream()
-                    .filter(p -> p.getUuid().equals(serverPost.getUuid()))
-                    .findFirst();
+        Map<String, Integer> indexByUuid = new HashMap<>();
+        for (int i = 0; i < masterPostList.size(); i++) {
+            indexByUuid.put(masterPostList.get(i).getUuid(), i);
+        }
 
-            if (localOpt.isPresent()) {
-                Post localPost = localOpt.get();
-                if (serverPost.getUpdatedAt().isAfter(localPost.getUpdatedAt())) {
-                    int index = masterPostList.indexOf(localPost);
-                    masterPostList.set(index, serverPost);
-                }
-            } else {
-                masterPostList.add(0, serverPost);
+        List<Post> addedPosts = new ArrayList<>();
+        for (Post serverPost : changedPosts) {
+            Integer index = indexByUuid.get(serverPost.getUuid());
+            if (index == null) {
+                addedPosts.add(0, serverPost);
+            } else if (serverPost.getUpdatedAt().isAfter(masterPostList.get(index).getUpdatedAt())) {
+                masterPostList.set(index, serverPost);
             }
         }
+        masterPostList.addAll(0, addedPosts);
     }
 
-    private void startPolling() {
+    private synchronized void startPolling() {
+        if (pollingExecutor != null) return;
+
         pollingExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
             Thread t = new Thread(r, "ApiPollingThread");
             t.setDaemon(true);
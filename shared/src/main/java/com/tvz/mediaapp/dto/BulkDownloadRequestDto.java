@@ -0,0 +1,12 @@
+package com.tvz.mediaapp.dto;
+
+import lombok.Data;
+import java.util.List;
+import java.util.Map;
+
+@Data
+public class BulkDownloadRequestDto {
+    private Map<String, List<String>> files;
+    private boolean thumbnailsOnly;
+    private Integer size;
+}
@@ -0,0 +1,20 @@
+package com.tvz.mediaapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MultipartUploadDto {
+    private String uploadId;
+    private String filename;
+    private String postUuid;
+    private long partSize;
+    private List<MultipartUploadPartDto> parts;
+}
@@ -0,0 +1,16 @@
+package com.tvz.mediaapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MultipartUploadPartDto {
+    private int partNumber;
+    private String url;
+    private String etag;
+}
@@ -0,0 +1,11 @@
+package com.tvz.mediaapp.dto;
+
+import lombok.Data;
+
+@Data
+public class MultipartUploadRequestDto {
+    private String filename;
+    private String postUuid;
+    private String contentType;
+    private long fileSize;
+}
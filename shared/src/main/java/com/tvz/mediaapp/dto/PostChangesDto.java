@@ -0,0 +1,21 @@
+package com.tvz.mediaapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostChangesDto {
+    private long version;
+    private List<PostDto> posts;
+    private List<String> deleted;
+    private boolean hasMore;
+    /** The deletions after {@code since} are no longer retained; drop local posts and sync again from version 0. */
+    private boolean reset;
+}
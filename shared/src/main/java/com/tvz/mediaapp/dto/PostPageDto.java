@@ -0,0 +1,17 @@
+package com.tvz.mediaapp.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PostPageDto {
+    private List<PostDto> items;
+    private String next;
+}
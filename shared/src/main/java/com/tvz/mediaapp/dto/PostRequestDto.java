@@ -13,4 +13,5 @@ public class PostRequestDto {
     private List<String> platforms;
     private String mediaType;
     private List<String> mediaUris;
+    private boolean directUpload;
 }
\ No newline at end of file
@@ -5,4 +5,5 @@ import lombok.Data;
 @Data
 public class UploadRequestDto {
     private String filename;
+    private String postUuid;
 }